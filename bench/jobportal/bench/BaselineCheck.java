@@ -0,0 +1,101 @@
+package jobportal.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two JMH CSV result files ({@code -rf csv -rff <file>}) and exits with status 1 if any
+ * benchmark's throughput dropped by more than the tolerance.
+ * <p>
+ * Usage: {@code BaselineCheck <results.csv> <baseline.csv> [tolerancePercent, default 10]}.
+ * Benchmarks are matched by name and parameters; ones missing from the baseline are skipped.
+ */
+public class BaselineCheck {
+
+    // Score by benchmark name plus parameter values
+    static Map<String, Double> readScores(List<String> lines) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return scores;
+        }
+        List<String> header = parseLine(lines.get(0));
+        int nameColumn = header.indexOf("Benchmark");
+        int scoreColumn = header.indexOf("Score");
+        if (nameColumn < 0 || scoreColumn < 0) {
+            throw new IllegalArgumentException("Not a JMH CSV file: " + lines.get(0));
+        }
+        for (int i = 1; i < lines.size(); i++) {
+            if (lines.get(i).isBlank()) {
+                continue;
+            }
+            List<String> fields = parseLine(lines.get(i));
+            StringBuilder key = new StringBuilder(fields.get(nameColumn));
+            for (int c = 0; c < header.size() && c < fields.size(); c++) {
+                if (header.get(c).startsWith("Param: ")) {
+                    key.append(' ').append(header.get(c).substring(7)).append('=').append(fields.get(c));
+                }
+            }
+            scores.put(key.toString(), Double.parseDouble(fields.get(scoreColumn)));
+        }
+        return scores;
+    }
+
+    // Split one CSV line, honoring double-quoted fields
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <results.csv> <baseline.csv> [tolerancePercent]");
+            System.exit(2);
+        }
+        Map<String, Double> results = readScores(Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8));
+        Map<String, Double> baseline = readScores(Files.readAllLines(Paths.get(args[1]), StandardCharsets.UTF_8));
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        boolean regressed = false;
+        for (Map.Entry<String, Double> result : results.entrySet()) {
+            Double before = baseline.get(result.getKey());
+            if (before == null || before <= 0) {
+                continue;
+            }
+            double change = (result.getValue() - before) / before * 100;
+            if (change < -tolerance) {
+                regressed = true;
+                System.out.printf(Locale.ROOT, "REGRESSION %s: %.1f -> %.1f ops/s (%.1f%%)%n",
+                        result.getKey(), before, result.getValue(), change);
+            }
+        }
+        if (regressed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package jobportal.bench;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import jobportal.DBConnection;
+import jobportal.model.Application;
+import jobportal.model.Company;
+import jobportal.model.Interview;
+import jobportal.model.JobPosting;
+import jobportal.model.User;
+
+/**
+ * Schema and deterministic synthetic data for benchmarks.
+ * The data is generated from a fixed seed, so runs against freshly seeded databases are comparable.
+ */
+final class BenchmarkData {
+    static final String[] SKILLS = {
+            "Java", "Spring", "SQL", "Python", "Django", "JavaScript", "React", "Node.js", "TypeScript", "Go",
+            "Kotlin", "Swift", "C++", "C#", ".NET", "Ruby", "Rails", "PHP", "AWS", "Azure",
+            "GCP", "Docker", "Kubernetes", "Terraform", "Linux", "Git", "Kafka", "Spark", "Hadoop", "Scala",
+            "Machine Learning", "TensorFlow", "PyTorch", "Pandas", "Excel", "Tableau", "Figma", "Agile", "Scrum", "REST"
+    };
+    static final String[] LOCATIONS = {
+            "New York", "San Francisco", "Seattle", "Austin", "Boston", "Chicago", "Denver", "Remote",
+            "London", "Berlin", "Toronto", "Bangalore"
+    };
+    static final String[] STATUSES = {"Pending", "Reviewed", "Interview", "Rejected", "Accepted"};
+    // Postings, applications and interviews are dated within this many days before today
+    static final int DAYS = 365;
+
+    // Same tables as the README, so the model SQL runs unchanged
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS Users (user_id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(100), " +
+                    "email VARCHAR(100) UNIQUE, password VARCHAR(100), location VARCHAR(100), skills TEXT)",
+            "CREATE TABLE IF NOT EXISTS Companies (company_id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(100) UNIQUE, " +
+                    "location VARCHAR(100), industry VARCHAR(100))",
+            "CREATE TABLE IF NOT EXISTS Job_Postings (job_id INT PRIMARY KEY AUTO_INCREMENT, company_id INT, " +
+                    "title VARCHAR(100), description TEXT, location VARCHAR(100), skills_required TEXT, date_posted DATE, " +
+                    "FOREIGN KEY (company_id) REFERENCES Companies(company_id), " +
+                    "INDEX idx_job_postings_date_posted (date_posted, job_id))",
+            "CREATE TABLE IF NOT EXISTS Applications (application_id INT PRIMARY KEY AUTO_INCREMENT, job_id INT, " +
+                    "user_id INT, application_date DATE, status VARCHAR(50), " +
+                    "FOREIGN KEY (job_id) REFERENCES Job_Postings(job_id), FOREIGN KEY (user_id) REFERENCES Users(user_id), " +
+                    "UNIQUE KEY uq_applications_user_job (user_id, job_id))",
+            "CREATE TABLE IF NOT EXISTS Interviews (interview_id INT PRIMARY KEY AUTO_INCREMENT, application_id INT, " +
+                    "scheduled_date DATE, status VARCHAR(50), feedback TEXT, start_time DATETIME, end_time DATETIME, " +
+                    "interviewer VARCHAR(100), room VARCHAR(100), " +
+                    "FOREIGN KEY (application_id) REFERENCES Applications(application_id))"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static String emailOf(int user) {
+        return "bench-user-" + user + "@example.com";
+    }
+
+    static String passwordOf(int user) {
+        return "bench-password-" + user;
+    }
+
+    static Date daysAgo(int days) {
+        return new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+    }
+
+    static void createSchema() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String ddl : SCHEMA) {
+                stmt.execute(ddl);
+            }
+        }
+    }
+
+    /**
+     * Insert the given volumes with the batched saveAll paths.
+     *
+     * @param interviewPercent Share of applications that get an interview, 0-100
+     */
+    static void seed(int companies, int jobs, int users, int applicationsPerUser, int interviewPercent, long seed) {
+        Random random = new Random(seed);
+
+        List<Company> companyRows = new ArrayList<>(companies);
+        for (int i = 0; i < companies; i++) {
+            companyRows.add(new Company("Bench Company " + i, pick(random, LOCATIONS), "Industry " + (i % 20)));
+        }
+        Company.saveAll(companyRows);
+
+        List<JobPosting> jobRows = new ArrayList<>(jobs);
+        for (int i = 0; i < jobs; i++) {
+            int companyId = companyRows.get(random.nextInt(companyRows.size())).getCompanyId();
+            jobRows.add(new JobPosting(companyId, "Engineer " + i, "Synthetic posting " + i,
+                    pick(random, LOCATIONS), skills(random, 3, 6), daysAgo(random.nextInt(DAYS))));
+        }
+        JobPosting.saveAll(jobRows);
+
+        List<User> userRows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userRows.add(new User("Bench User " + i, emailOf(i), passwordOf(i), pick(random, LOCATIONS),
+                    skills(random, 2, 8)));
+        }
+        User.saveAll(userRows);
+
+        List<Application> applicationRows = new ArrayList<>();
+        for (User user : userRows) {
+            // Distinct jobs per user, as the unique (user_id, job_id) key requires
+            Set<Integer> appliedJobs = new HashSet<>();
+            for (int a = 0; a < Math.min(applicationsPerUser, jobRows.size()); a++) {
+                int jobId = jobRows.get(random.nextInt(jobRows.size())).getJobId();
+                if (!appliedJobs.add(jobId)) {
+                    a--;
+                    continue;
+                }
+                applicationRows.add(new Application(jobId, user.getUserId(), daysAgo(random.nextInt(DAYS)),
+                        pick(random, STATUSES)));
+            }
+        }
+        Application.saveAll(applicationRows);
+
+        List<Interview> interviewRows = new ArrayList<>();
+        for (Application application : applicationRows) {
+            if (random.nextInt(100) < interviewPercent) {
+                interviewRows.add(new Interview(application.getApplicationId(), daysAgo(random.nextInt(DAYS)),
+                        "Scheduled", null));
+            }
+        }
+        Interview.saveAll(interviewRows);
+    }
+
+    // Skills skewed toward the front of SKILLS, like real postings favor a few popular skills
+    static String skills(Random random, int min, int max) {
+        int count = min + random.nextInt(max - min + 1);
+        Set<String> skills = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            double u = random.nextDouble();
+            skills.add(SKILLS[(int) (u * u * SKILLS.length)]);
+        }
+        return String.join(", ", skills);
+    }
+
+    static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,94 @@
+package jobportal.bench;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import jobportal.DBConnection;
+import jobportal.model.JobPosting;
+import jobportal.model.Page;
+import jobportal.model.User;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The database the benchmarks run against, created and seeded once per trial.
+ * <p>
+ * Unless {@code -Djobportal.db.url} is given, this is an in-memory H2 database in MySQL mode, so
+ * the model SQL runs unchanged without a server. Point it at a scratch MySQL database to measure
+ * the real driver and server; seeding is skipped when an earlier run already seeded it.
+ * <p>
+ * New password hashes use {@code -Djobportal.auth.pbkdf2Iterations} (default 1000 here rather than
+ * the production 600000), so {@code User.authenticate} measures the lookup and verify path instead
+ * of being a PBKDF2 benchmark. Verification time grows linearly with the iteration count.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+    static final int BENCH_PBKDF2_ITERATIONS = 1_000;
+
+    static {
+        // Must run before DBConnection and PasswordHasher read their settings
+        if (System.getProperty("jobportal.db.url") == null) {
+            System.setProperty("jobportal.db.url", "jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1");
+            System.setProperty("jobportal.db.driver", "org.h2.Driver");
+            System.setProperty("jobportal.db.user", "sa");
+            System.setProperty("jobportal.db.password", "");
+        }
+        if (System.getProperty("jobportal.auth.pbkdf2Iterations") == null) {
+            System.setProperty("jobportal.auth.pbkdf2Iterations", Integer.toString(BENCH_PBKDF2_ITERATIONS));
+        }
+    }
+
+    @Param("200")
+    public int companies;
+
+    @Param("20000")
+    public int jobs;
+
+    @Param("10000")
+    public int users;
+
+    @Param("5")
+    public int applicationsPerUser;
+
+    @Param("20")
+    public int interviewPercent;
+
+    // IDs of existing users, which may be fewer than requested if seeding was skipped
+    List<Integer> userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DBConnection.initialize();
+        BenchmarkData.createSchema();
+        if (User.findByEmail(BenchmarkData.emailOf(0)) == null) {
+            BenchmarkData.seed(companies, jobs, users, applicationsPerUser, interviewPercent, 42L);
+        }
+        JobPosting.loadSkillIndex();
+        userIds = loadUserIds(users);
+        if (userIds.isEmpty()) {
+            throw new IllegalStateException("No users in the benchmark database");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DBConnection.closeConnection();
+    }
+
+    private static List<Integer> loadUserIds(int limit) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<User> page = User.findPage(cursor, 1_000);
+            for (User user : page.getItems()) {
+                ids.add(user.getUserId());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null && ids.size() < limit);
+        return ids;
+    }
+}
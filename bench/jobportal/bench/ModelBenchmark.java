@@ -0,0 +1,88 @@
+package jobportal.bench;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import jobportal.model.Application;
+import jobportal.model.Interview;
+import jobportal.model.JobPosting;
+import jobportal.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Throughput of the model layer's hot read paths against a seeded {@link BenchmarkDatabase}.
+ * Each benchmark picks its arguments from a per-thread random stream, so runs are repeatable and
+ * threads ({@code -t}) do not share a generator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelBenchmark {
+
+    @State(Scope.Thread)
+    public static class Caller {
+        Random random;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams thread) {
+            random = new Random(42L + thread.getThreadIndex());
+        }
+    }
+
+    @Benchmark
+    public User authenticate(BenchmarkDatabase db, Caller caller) {
+        int user = caller.random.nextInt(db.users);
+        return User.authenticate(BenchmarkData.emailOf(user), BenchmarkData.passwordOf(user));
+    }
+
+    // The lookup half of authenticate, without verifying the password
+    @Benchmark
+    public User findByEmail(BenchmarkDatabase db, Caller caller) {
+        return User.findByEmail(BenchmarkData.emailOf(caller.random.nextInt(db.users)));
+    }
+
+    @Benchmark
+    public List<JobPosting> searchBySkills(BenchmarkDatabase db, Caller caller) {
+        // One or two skills, weighted toward popular ones like real searches
+        return JobPosting.searchBySkills(BenchmarkData.skills(caller.random, 1, 2));
+    }
+
+    @Benchmark
+    public List<Application> findApplicationsByUserId(BenchmarkDatabase db, Caller caller) {
+        List<Integer> userIds = db.userIds;
+        return Application.findByUserId(userIds.get(caller.random.nextInt(userIds.size())));
+    }
+
+    @Benchmark
+    public List<Interview> findInterviewsByDateRange(BenchmarkDatabase db, Caller caller) {
+        int from = caller.random.nextInt(BenchmarkData.DAYS);
+        Date start = BenchmarkData.daysAgo(from);
+        Date end = BenchmarkData.daysAgo(Math.max(0, from - 7));
+        return Interview.findByDateRange(start, end);
+    }
+
+    // Row mapping: 1000 rows per call through the shared row mappers
+    @Benchmark
+    public List<JobPosting> jobPostingPage(BenchmarkDatabase db) {
+        return JobPosting.findPage(null, 1_000).getItems();
+    }
+
+    @Benchmark
+    public List<User> userPage(BenchmarkDatabase db) {
+        return User.findPage(null, 1_000).getItems();
+    }
+}
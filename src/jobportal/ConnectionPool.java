@@ -0,0 +1,429 @@
+package jobportal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded JDBC connection pool.
+ * Borrowed connections are handed out as proxies whose {@code close()} returns the
+ * physical connection to the pool, so callers keep using try-with-resources as usual.
+ * The pool validates connections on borrow, evicts connections that sit idle for too
+ * long (down to the minimum size), fails a borrow after an acquisition timeout and
+ * reports connections that are held longer than the leak detection threshold.
+ * Each physical connection carries its own {@link StatementCache}, so prepared
+ * statements survive across borrows.
+ */
+public class ConnectionPool implements AutoCloseable {
+    // Connections used within this window are handed out without a validation round trip
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 5_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final boolean traceLeaks;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // Idle connections, most recently returned first
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final Semaphore permits;
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    /**
+     * Create a pool and open its minimum number of connections.
+     *
+     * @param url JDBC URL
+     * @param user Database user
+     * @param password Database password
+     * @param minSize Number of connections kept open even when idle
+     * @param maxSize Maximum number of open connections
+     * @param acquireTimeoutMillis How long a borrow waits for a free connection
+     * @param idleTimeoutMillis How long a connection above the minimum may sit idle
+     * @param leakThresholdMillis How long a connection may be held before it is reported, 0 to disable
+     * @param traceLeaks Whether to capture a stack trace on every borrow, so a leak report shows where the
+     *                   connection was borrowed; costly, for debugging only
+     * @param validationTimeoutSeconds Timeout for the validation check on borrow
+     * @param statementCacheSize Prepared statements cached per connection, 0 to disable
+     * @throws SQLException if the initial connections cannot be opened
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long acquireTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          boolean traceLeaks, int validationTimeoutSeconds, int statementCacheSize) throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.traceLeaks = traceLeaks;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        try {
+            for (int i = 0; i < minSize; i++) {
+                idle.offerLast(openConnection());
+            }
+        } catch (SQLException e) {
+            closeIdleConnections();
+            throw e;
+        }
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jobportal-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_PERIOD_MILLIS, HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool, waiting up to the acquisition timeout.
+     * Closing the returned connection hands it back to the pool.
+     *
+     * @return A validated connection
+     * @throws SQLException if the pool is closed, the wait times out or a new connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis
+                        + "ms waiting for a connection (" + borrowed.size() + " of " + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.isUsable()) {
+                    return lease(pooled);
+                }
+                discard(pooled);
+            }
+            return lease(openConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getActiveCount() { return borrowed.size(); }
+
+    public int getIdleCount() { return idle.size(); }
+
+    public int getTotalCount() { return totalConnections.get(); }
+
+    public int getMaxSize() { return maxSize; }
+
+    public boolean isClosed() { return closed; }
+
+    public long getStatementCacheHits() { return statementCounters.hits.sum(); }
+
+    public long getStatementCacheMisses() { return statementCounters.misses.sum(); }
+
+    public long getStatementCacheEvictions() { return statementCounters.evictions.sum(); }
+
+    public double getStatementCacheHitRatio() {
+        long hits = statementCounters.hits.sum();
+        long total = hits + statementCounters.misses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Close the pool. Idle connections are closed immediately; borrowed connections
+     * are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        closeIdleConnections();
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool{" +
+                "active=" + borrowed.size() +
+                ", idle=" + idle.size() +
+                ", total=" + totalConnections.get() +
+                ", max=" + maxSize +
+                ", statementHits=" + statementCounters.hits.sum() +
+                ", statementMisses=" + statementCounters.misses.sum() +
+                '}';
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private Connection lease(PooledConnection pooled) {
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.borrowSite = traceLeaks && leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+        pooled.leakReported = false;
+        borrowed.add(pooled);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease(pooled));
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        if (pooled.statements != null) {
+            pooled.statements.releaseAll();
+        }
+        pooled.lastUsed = System.currentTimeMillis();
+        try {
+            if (pooled.leakReported) {
+                System.err.println("Previously reported connection returned after "
+                        + (pooled.lastUsed - pooled.borrowedAt) + "ms");
+            }
+            if (closed || totalConnections.get() > maxSize || !pooled.reset()) {
+                discard(pooled);
+            } else {
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        if (pooled.statements != null) {
+            pooled.statements.closeAll();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void closeIdleConnections() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Evict connections that have been idle too long, oldest first, but keep the minimum
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && totalConnections.get() > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                if (now - pooled.lastUsed > idleTimeoutMillis && idle.remove(pooled)) {
+                    discard(pooled);
+                }
+            }
+
+            // Top back up to the minimum size
+            while (!closed && totalConnections.get() < minSize) {
+                idle.offerLast(openConnection());
+            }
+
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pooled : borrowed) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                        pooled.leakReported = true;
+                        System.err.println("Possible connection leak: connection held for "
+                                + (now - pooled.borrowedAt) + "ms");
+                        if (pooled.borrowSite != null) {
+                            pooled.borrowSite.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error maintaining connection pool: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Unexpected error maintaining connection pool: " + e);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementCounters)
+                    : null;
+        }
+
+        // Validate on borrow, skipping the round trip for connections that were just in use
+        private boolean isUsable() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (System.currentTimeMillis() - lastUsed < VALIDATION_BYPASS_MILLIS) {
+                    return true;
+                }
+                return physical.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        // Undo anything the borrower left behind so the next borrower starts clean
+        private boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Error resetting pooled connection: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * The borrower's view of a pooled connection. Once closed, the handle is dead
+     * even though the physical connection lives on in the pool.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned = false;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (returned ? ", returned]" : "]");
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                case "prepareStatement":
+                    if (!returned && pooled.statements != null && isCacheable(args)) {
+                        int generatedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        long start = System.nanoTime();
+                        PreparedStatement stmt;
+                        try {
+                            stmt = pooled.statements.prepare((Connection) proxy, (String) args[0], generatedKeys);
+                        } catch (SQLException e) {
+                            if (InstrumentedStatement.ENABLED) {
+                                InstrumentedStatement.recordPrepareFailure((String) args[0], System.nanoTime() - start);
+                            }
+                            throw e;
+                        }
+                        return InstrumentedStatement.ENABLED ? InstrumentedStatement.wrap(stmt, (String) args[0]) : stmt;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            Object result;
+            long start = System.nanoTime();
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                if (InstrumentedStatement.ENABLED && method.getName().equals("prepareStatement")) {
+                    InstrumentedStatement.recordPrepareFailure((String) args[0], System.nanoTime() - start);
+                }
+                throw e.getCause();
+            }
+            if (InstrumentedStatement.ENABLED) {
+                if (result instanceof PreparedStatement && method.getName().equals("prepareStatement")) {
+                    return InstrumentedStatement.wrap((PreparedStatement) result, (String) args[0]);
+                } else if (result instanceof Statement && method.getName().equals("createStatement")) {
+                    return InstrumentedStatement.wrap((Statement) result);
+                }
+            }
+            return result;
+        }
+
+        // Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) go through the cache
+        private boolean isCacheable(Object[] args) {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+        }
+    }
+}
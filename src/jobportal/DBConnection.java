@@ -9,16 +9,31 @@ import java.sql.SQLException;
  * Manages database connections with proper pooling and error handling.
  */
 public class DBConnection {
-    // Database connection parameters
-    private static final String URL = "jdbc:mysql://localhost:3306/job_portal";
-    private static final String USER = "root";
-    private static final String PASSWORD = "Joshdias1234"; // Change to your actual password
+    // Database connection parameters, overridable with -Djobportal.db.* system properties
+    // (e.g. to point benchmarks at a scratch database)
+    // Server-side prepared statements let the per-connection statement cache skip parse and plan work;
+    // cursor fetch makes statements with a positive fetch size stream rows instead of buffering them all;
+    // batched INSERTs are rewritten into multi-row INSERTs
+    private static final String URL = System.getProperty("jobportal.db.url", "jdbc:mysql://localhost:3306/job_portal"
+            + "?useServerPrepStmts=true&useCursorFetch=true&rewriteBatchedStatements=true");
+    private static final String USER = System.getProperty("jobportal.db.user", "root");
+    private static final String PASSWORD = System.getProperty("jobportal.db.password", "Joshdias1234"); // Change to your actual password
 
     // JDBC driver
-    private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
+    private static final String DRIVER = System.getProperty("jobportal.db.driver", "com.mysql.cj.jdbc.Driver");
 
-    // Connection pool - in a real application, you might use a connection pool library
-    private static Connection connection = null;
+    // Connection pool settings, overridable with -Djobportal.pool.* system properties
+    private static final int MIN_POOL_SIZE = Integer.getInteger("jobportal.pool.minSize", 2);
+    private static final int MAX_POOL_SIZE = Integer.getInteger("jobportal.pool.maxSize", 10);
+    private static final long ACQUIRE_TIMEOUT_MILLIS = Long.getLong("jobportal.pool.acquireTimeoutMillis", 5_000L);
+    private static final long IDLE_TIMEOUT_MILLIS = Long.getLong("jobportal.pool.idleTimeoutMillis", 300_000L);
+    private static final long LEAK_THRESHOLD_MILLIS = Long.getLong("jobportal.pool.leakThresholdMillis", 30_000L);
+    private static final boolean LEAK_TRACE = Boolean.getBoolean("jobportal.pool.leakTrace");
+    private static final int VALIDATION_TIMEOUT_SECONDS = Integer.getInteger("jobportal.pool.validationTimeoutSeconds", 2);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("jobportal.pool.statementCacheSize", 64);
+
+    // Shared connection pool, created on first use
+    private static ConnectionPool pool = null;
 
     static {
         // Load the JDBC driver
@@ -31,18 +46,40 @@ public class DBConnection {
     }
 
     /**
-     * Get a database connection.
-     * This method will create a new connection if one doesn't exist or if the existing one is closed.
+     * Open the connection pool up front so the first request does not pay for it.
+     */
+    public static void initialize() {
+        getPool();
+    }
+
+    /**
+     * Get the shared connection pool, creating it if it doesn't exist or has been closed.
+     *
+     * @return The connection pool
+     */
+    public static synchronized ConnectionPool getPool() {
+        if (pool == null || pool.isClosed()) {
+            try {
+                pool = new ConnectionPool(URL, USER, PASSWORD, MIN_POOL_SIZE, MAX_POOL_SIZE,
+                        ACQUIRE_TIMEOUT_MILLIS, IDLE_TIMEOUT_MILLIS, LEAK_THRESHOLD_MILLIS, LEAK_TRACE,
+                        VALIDATION_TIMEOUT_SECONDS, STATEMENT_CACHE_SIZE);
+            } catch (SQLException e) {
+                System.err.println("Error creating connection pool: " + e.getMessage());
+                throw new RuntimeException("Failed to connect to database", e);
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Borrow a database connection from the pool.
+     * Callers must close the connection (preferably with try-with-resources) to return it to the pool.
      *
      * @return A valid database connection
      */
     public static Connection getConnection() {
         try {
-            // Check if connection is null or closed
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            }
-            return connection;
+            return getPool().borrow();
         } catch (SQLException e) {
             System.err.println("Error establishing database connection: " + e.getMessage());
             throw new RuntimeException("Failed to connect to database", e);
@@ -50,22 +87,20 @@ public class DBConnection {
     }
 
     /**
-     * Close the database connection if it exists and is open.
+     * Close the connection pool and all of its idle connections.
      */
-    public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                System.out.println("Database connection closed successfully.");
-            } catch (SQLException e) {
-                System.err.println("Error closing database connection: " + e.getMessage());
-            }
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+            System.out.println("Database connection closed successfully.");
         }
     }
 
     /**
      * Create a fresh connection for a new transaction.
      * This can be used when you need a separate connection with its own transaction scope.
+     * The connection is not pooled; the caller is responsible for closing it.
      *
      * @return A new database connection
      */
@@ -77,4 +112,4 @@ public class DBConnection {
             throw new RuntimeException("Failed to create fresh connection", e);
         }
     }
-}
\ No newline at end of file
+}
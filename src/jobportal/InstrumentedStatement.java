@@ -0,0 +1,234 @@
+package jobportal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import jobportal.metrics.QueryMetrics;
+import jobportal.metrics.QueryStats;
+import jobportal.metrics.SlowQueryLog;
+
+/**
+ * Wraps a statement handed out by the pool to time its executions and count the rows they
+ * return or change, reporting to {@link QueryMetrics} and {@link SlowQueryLog}. Every other call
+ * is passed straight through.
+ */
+final class InstrumentedStatement implements InvocationHandler {
+    // Wrap statements only if something is listening
+    static final boolean ENABLED = QueryMetrics.ENABLED || SlowQueryLog.ENABLED;
+
+    private final Statement target;
+    // SQL of a prepared statement; null for plain statements, whose SQL comes with each execute call
+    private final String sql;
+    // Model method that created the statement, which its executions are recorded under
+    private final String operation;
+    // Latest result set, whose rows are reported when the statement is closed or re-executed
+    private CountingResultSet results;
+    // Bound parameters by index for the slow-query log; copied before the first change after an execute,
+    // because the previous execution's log entry may still refer to them
+    private Object[] binds;
+    private boolean bindsShared = false;
+
+    private InstrumentedStatement(Statement target, String sql) {
+        this.target = target;
+        this.sql = sql;
+        this.operation = QueryMetrics.callingOperation();
+    }
+
+    static PreparedStatement wrap(PreparedStatement target, String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new InstrumentedStatement(target, sql));
+    }
+
+    static Statement wrap(Statement target) {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{Statement.class},
+                new InstrumentedStatement(target, null));
+    }
+
+    // Record a statement that failed before it could be wrapped, e.g. SQL the server refused to prepare
+    static void recordPrepareFailure(String sql, long nanos) {
+        QueryStats stats = QueryMetrics.statsFor(QueryMetrics.callingOperation(), sql);
+        if (QueryMetrics.ENABLED) {
+            stats.recordExecution(nanos, true);
+        }
+        SlowQueryLog.record(stats.getOperation(), sql, null, nanos, 0, nanos, -1, true);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (!name.startsWith("execute")) {
+            switch (name) {
+                case "close":
+                    reportResults();
+                    return call(method, args);
+                case "clearParameters":
+                    binds = null;
+                    return call(method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (SlowQueryLog.ENABLED && name.startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer) {
+                        bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                    }
+                    return call(method, args);
+            }
+        }
+
+        String executedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+        if (executedSql == null) {
+            return call(method, args);
+        }
+        reportResults();
+        QueryStats stats = QueryMetrics.statsFor(operation, executedSql);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call(method, args);
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            if (QueryMetrics.ENABLED) {
+                stats.recordExecution(elapsed, true);
+            }
+            SlowQueryLog.record(stats.getOperation(), executedSql, sharedBinds(), elapsed, 0, elapsed, -1, true);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (QueryMetrics.ENABLED) {
+            stats.recordExecution(elapsed, false);
+        }
+
+        long rows = -1;
+        if (result instanceof ResultSet) {
+            // Rows and the slow-query check are reported once the results have been read
+            results = new CountingResultSet((ResultSet) result, stats, executedSql, sharedBinds(), start, elapsed);
+            return results;
+        } else if (result instanceof Integer) {
+            rows = (Integer) result;
+        } else if (result instanceof Long) {
+            rows = (Long) result;
+        } else if (result instanceof int[]) {
+            rows = 0;
+            for (int count : (int[]) result) {
+                rows += Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            rows = 0;
+            for (long count : (long[]) result) {
+                rows += Math.max(0, count);
+            }
+        }
+        if (QueryMetrics.ENABLED && rows > 0) {
+            stats.recordRows(rows);
+        }
+        SlowQueryLog.record(stats.getOperation(), executedSql, sharedBinds(), elapsed, 0, elapsed, rows, false);
+        return result;
+    }
+
+    private void bind(int index, Object value) {
+        if (index < 1 || index > 10_000) {
+            return;
+        }
+        if (binds == null) {
+            binds = new Object[Math.max(index + 1, 8)];
+        } else if (bindsShared || index >= binds.length) {
+            binds = Arrays.copyOf(binds, Math.max(index + 1, binds.length));
+        }
+        bindsShared = false;
+        binds[index] = value == null ? SlowQueryLog.SQL_NULL : value;
+    }
+
+    // The current parameters, which from now on must be copied before they change
+    private Object[] sharedBinds() {
+        bindsShared = true;
+        return binds;
+    }
+
+    private void reportResults() {
+        if (results != null) {
+            results.report();
+            results = null;
+        }
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Counts the rows read through a result set and reports them once, when it is exhausted or
+     * closed, or when its statement is.
+     */
+    private static final class CountingResultSet extends DelegatingResultSet {
+        private final QueryStats stats;
+        private final String sql;
+        private final Object[] binds;
+        private final long startNanos;
+        private final long executeNanos;
+        // Time spent in the driver's next(), which includes fetching further batches of rows
+        private long fetchNanos = 0;
+        private long rows = 0;
+        private boolean reported = false;
+
+        private CountingResultSet(ResultSet target, QueryStats stats, String sql, Object[] binds,
+                                  long startNanos, long executeNanos) {
+            super(target);
+            this.stats = stats;
+            this.sql = sql;
+            this.binds = binds;
+            this.startNanos = startNanos;
+            this.executeNanos = executeNanos;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            boolean hasRow;
+            if (SlowQueryLog.ENABLED) {
+                long start = System.nanoTime();
+                hasRow = target.next();
+                fetchNanos += System.nanoTime() - start;
+            } else {
+                hasRow = target.next();
+            }
+            if (hasRow) {
+                rows++;
+            } else {
+                report();
+            }
+            return hasRow;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            report();
+            target.close();
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                if (QueryMetrics.ENABLED) {
+                    stats.recordRows(rows);
+                }
+                SlowQueryLog.record(stats.getOperation(), sql, binds, executeNanos, fetchNanos,
+                        System.nanoTime() - startNanos, rows, false);
+            }
+        }
+    }
+}
@@ -9,12 +9,18 @@ import jobportal.model.*;
 public class JobPortalApp {
     private static Scanner scanner = new Scanner(System.in);
     private static User currentUser = null;
+    private static final int JOBS_PAGE_SIZE = 20;
 
     public static void main(String[] args) {
         System.out.println("Welcome to the Job Portal System!");
 
-        // Initialize database connection
-        DBConnection.getConnection();
+        // Initialize database connection pool
+        DBConnection.initialize();
+
+        // Build in-memory search indexes
+        JobPosting.loadSkillIndex();
+        Application.loadAppliedFilter();
+        User.loadEmailFilter();
 
         boolean exit = false;
         while (!exit) {
@@ -136,17 +142,16 @@ public class JobPortalApp {
         System.out.print("Enter skills (comma separated): ");
         String skills = scanner.nextLine();
 
-        User existingUser = User.findByEmail(email);
-        if (existingUser != null) {
-            System.out.println("Email already registered. Please use a different email.");
-            return;
-        }
-
         User newUser = new User(name, email, password, location, skills);
-        if (newUser.save()) {
-            System.out.println("Registration successful! You can now login.");
-        } else {
-            System.out.println("Registration failed. Please try again.");
+        switch (newUser.register()) {
+            case SAVED:
+                System.out.println("Registration successful! You can now login.");
+                break;
+            case DUPLICATE:
+                System.out.println("Email already registered. Please use a different email.");
+                break;
+            default:
+                System.out.println("Registration failed. Please try again.");
         }
     }
 
@@ -199,38 +204,63 @@ public class JobPortalApp {
         System.out.print("Enter your choice: ");
 
         int choice = getUserChoice();
-        List<JobPosting> jobPostings = null;
+        List<JobListing> jobListings = null;
 
         switch (choice) {
             case 1:
                 System.out.print("Enter skills to search: ");
                 String skills = scanner.nextLine();
-                jobPostings = JobPosting.searchBySkills(skills);
+                jobListings = JobListing.searchBySkills(skills);
                 break;
             case 2:
                 System.out.print("Enter location to search: ");
                 String location = scanner.nextLine();
-                jobPostings = JobPosting.searchByLocation(location);
+                jobListings = JobListing.searchByLocation(location);
                 break;
             case 3:
-                jobPostings = JobPosting.findAll();
-                break;
+                browseAllJobs();
+                return;
             default:
                 System.out.println("Invalid choice. Showing all jobs.");
-                jobPostings = JobPosting.findAll();
+                browseAllJobs();
+                return;
         }
 
-        if (jobPostings.isEmpty()) {
+        if (jobListings.isEmpty()) {
             System.out.println("No jobs found matching your criteria.");
         } else {
-            System.out.println("\nFound " + jobPostings.size() + " job(s):");
-            for (JobPosting job : jobPostings) {
-                Company company = job.getCompany();
-                System.out.println("Job ID: " + job.getJobId() +
-                        " | Title: " + job.getTitle() +
-                        " | Company: " + (company != null ? company.getName() : "Unknown") +
-                        " | Location: " + job.getLocation());
+            System.out.println("\nFound " + jobListings.size() + " job(s):");
+            printJobListings(jobListings);
+        }
+    }
+
+    // Show all jobs newest first, one page at a time
+    private static void browseAllJobs() {
+        Page<JobListing> page = JobListing.findPageByDatePosted(null, JOBS_PAGE_SIZE);
+        if (page.getItems().isEmpty()) {
+            System.out.println("No jobs found matching your criteria.");
+            return;
+        }
+
+        while (true) {
+            printJobListings(page.getItems());
+            if (!page.hasNext()) {
+                break;
             }
+            System.out.print("Show more jobs? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                break;
+            }
+            page = JobListing.findPageByDatePosted(page.getNextCursor(), JOBS_PAGE_SIZE);
+        }
+    }
+
+    private static void printJobListings(List<JobListing> jobListings) {
+        for (JobListing job : jobListings) {
+            System.out.println("Job ID: " + job.getJobId() +
+                    " | Title: " + job.getTitle() +
+                    " | Company: " + (job.getCompanyName() != null ? job.getCompanyName() : "Unknown") +
+                    " | Location: " + job.getLocation());
         }
     }
 
@@ -246,27 +276,23 @@ public class JobPortalApp {
                 return;
             }
 
-            // Check if already applied
-            List<Application> applications = Application.findByUserId(currentUser.getUserId());
-            for (Application app : applications) {
-                if (app.getJobId() == jobId) {
-                    System.out.println("You have already applied for this job.");
-                    return;
-                }
-            }
-
-            // Create new application
+            // Create new application unless already applied
             Application application = new Application(
                     jobId,
                     currentUser.getUserId(),
                     new Date(System.currentTimeMillis()),
-                    "Pending"
+                    ApplicationStatus.PENDING.getLabel()
             );
 
-            if (application.save()) {
-                System.out.println("Application submitted successfully!");
-            } else {
-                System.out.println("Failed to submit application. Please try again.");
+            switch (application.saveIfAbsent()) {
+                case SAVED:
+                    System.out.println("Application submitted successfully!");
+                    break;
+                case DUPLICATE:
+                    System.out.println("You have already applied for this job.");
+                    break;
+                default:
+                    System.out.println("Failed to submit application. Please try again.");
             }
         } catch (NumberFormatException e) {
             System.out.println("Invalid Job ID. Please enter a valid number.");
@@ -275,15 +301,14 @@ public class JobPortalApp {
 
     private static void viewApplications() {
         System.out.println("\n===== My Applications =====");
-        List<Application> applications = Application.findByUserId(currentUser.getUserId());
+        List<ApplicationSummary> applications = ApplicationSummary.findByUserId(currentUser.getUserId());
 
         if (applications.isEmpty()) {
             System.out.println("You haven't applied for any jobs yet.");
         } else {
-            for (Application app : applications) {
-                JobPosting job = app.getJob();
+            for (ApplicationSummary app : applications) {
                 System.out.println("Application ID: " + app.getApplicationId() +
-                        " | Job: " + (job != null ? job.getTitle() : "Unknown") +
+                        " | Job: " + (app.getJobTitle() != null ? app.getJobTitle() : "Unknown") +
                         " | Date: " + app.getApplicationDate() +
                         " | Status: " + app.getStatus());
             }
@@ -292,18 +317,16 @@ public class JobPortalApp {
 
     private static void viewInterviews() {
         System.out.println("\n===== My Interviews =====");
-        List<Application> applications = Application.findByUserId(currentUser.getUserId());
+        List<ApplicationSummary> applications = ApplicationSummary.findByUserId(currentUser.getUserId());
         boolean hasInterviews = false;
 
-        for (Application app : applications) {
-            Interview interview = app.getInterview();
-            if (interview != null) {
+        for (ApplicationSummary app : applications) {
+            if (app.hasInterview()) {
                 hasInterviews = true;
-                JobPosting job = app.getJob();
-                System.out.println("Interview ID: " + interview.getInterviewId() +
-                        " | Job: " + (job != null ? job.getTitle() : "Unknown") +
-                        " | Date: " + interview.getScheduledDate() +
-                        " | Status: " + interview.getStatus());
+                System.out.println("Interview ID: " + app.getInterviewId() +
+                        " | Job: " + (app.getJobTitle() != null ? app.getJobTitle() : "Unknown") +
+                        " | Date: " + app.getInterviewDate() +
+                        " | Status: " + app.getInterviewStatus());
             }
         }
 
@@ -0,0 +1,236 @@
+package jobportal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An LRU cache of prepared statements belonging to one physical connection.
+ * Statements are keyed by their SQL text (and whether generated keys were requested).
+ * Callers get a proxy whose {@code close()} only resets the statement and hands it back
+ * to the cache, so the next prepare of the same SQL skips the parse and plan work.
+ * A connection is used by one borrower at a time, so the cache itself is not thread-safe.
+ */
+class StatementCache {
+    private final Connection physical;
+    private final int capacity;
+    private final Counters counters;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * Hit, miss and eviction counters shared by all caches of a pool.
+     */
+    static final class Counters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+    }
+
+    StatementCache(Connection physical, int capacity, Counters counters) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Prepare a statement, reusing a cached one for the same SQL if it is not already in use.
+     *
+     * @param owner The connection handle the statement should report as its connection
+     * @param sql The SQL text
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}
+     * @return A statement whose close() returns it to the cache
+     */
+    PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        CachedStatement cached = statements.get(key);
+
+        if (cached != null && !cached.inUse) {
+            counters.hits.increment();
+        } else if (cached != null) {
+            // The same SQL is already open on this connection; hand out an uncached statement
+            counters.misses.increment();
+            return physical.prepareStatement(sql, autoGeneratedKeys);
+        } else {
+            counters.misses.increment();
+            cached = new CachedStatement(physical.prepareStatement(sql, autoGeneratedKeys));
+            statements.put(key, cached);
+            evictIfFull();
+        }
+
+        cached.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new Handle(owner, cached));
+    }
+
+    int size() { return statements.size(); }
+
+    /**
+     * Return every statement the borrower forgot to close to the cache.
+     */
+    void releaseAll() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                cached.release();
+            }
+        }
+    }
+
+    /**
+     * Close every cached statement, e.g. before the physical connection is closed.
+     */
+    void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.closePhysical();
+        }
+        statements.clear();
+    }
+
+    private void evictIfFull() {
+        Iterator<CachedStatement> leastRecentlyUsed = statements.values().iterator();
+        while (statements.size() > capacity && leastRecentlyUsed.hasNext()) {
+            CachedStatement cached = leastRecentlyUsed.next();
+            if (!cached.inUse) {
+                leastRecentlyUsed.remove();
+                cached.closePhysical();
+                counters.evictions.increment();
+            }
+        }
+    }
+
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private final List<ResultSet> openResults = new ArrayList<>(2);
+        private boolean inUse = false;
+        private boolean dirty = false;
+        // Bumped on every release so stale handles cannot touch the next caller's statement
+        private int generation = 0;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        // Reset the statement for the next caller; the physical statement stays open
+        private void release() {
+            for (ResultSet rs : openResults) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing result set: " + e.getMessage());
+                }
+            }
+            openResults.clear();
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                if (dirty) {
+                    statement.setFetchSize(0);
+                    statement.setMaxRows(0);
+                    statement.setQueryTimeout(0);
+                    dirty = false;
+                }
+            } catch (SQLException e) {
+                System.err.println("Error resetting cached statement: " + e.getMessage());
+            }
+            generation++;
+            inUse = false;
+        }
+
+        // Re-executing a statement closes its previous results, so drop those handles
+        private void pruneClosedResults() {
+            openResults.removeIf(rs -> {
+                try {
+                    return rs.isClosed();
+                } catch (SQLException e) {
+                    return true;
+                }
+            });
+        }
+
+        private void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The caller's view of a cached statement.
+     */
+    private static final class Handle implements InvocationHandler {
+        private final Connection owner;
+        private final CachedStatement cached;
+        private final int generation;
+        private boolean closed = false;
+
+        private Handle(Connection owner, CachedStatement cached) {
+            this.owner = owner;
+            this.cached = cached;
+            this.generation = cached.generation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (generation != cached.generation) {
+                closed = true;
+            }
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        cached.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setQueryTimeout":
+                    cached.dirty = true;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            Object result;
+            try {
+                result = method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                if (cached.openResults.size() >= 4) {
+                    cached.pruneClosedResults();
+                }
+                cached.openResults.add((ResultSet) result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package jobportal.async;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import jobportal.DBConnection;
+import jobportal.auth.PasswordHasher;
+import jobportal.model.Application;
+import jobportal.model.ApplicationSummary;
+import jobportal.model.Company;
+import jobportal.model.Interview;
+import jobportal.model.JobListing;
+import jobportal.model.JobPosting;
+import jobportal.model.Page;
+import jobportal.model.SaveResult;
+import jobportal.model.User;
+
+/**
+ * Non-blocking facade over the model classes.
+ * <p>
+ * Each call runs the blocking model method on its own virtual thread and returns a
+ * {@link CompletableFuture}, so independent lookups can be started together and composed:
+ * <pre>{@code
+ * CompletableFuture<User> user = dao.findUserById(id);
+ * CompletableFuture<List<ApplicationSummary>> applications = dao.findApplicationSummaries(id);
+ * CompletableFuture<Page<JobListing>> jobs = dao.findJobPage(null, 20);
+ * CompletableFuture.allOf(user, applications, jobs).join();
+ * }</pre>
+ * At most as many queries as the pool has connections run at once; the rest wait on a
+ * virtual thread, which costs almost nothing, instead of queueing inside the pool where they
+ * would count against its acquisition timeout. Password hashing at login runs on a separate
+ * pool of {@code -Djobportal.auth.hashThreads} (default: number of CPUs) platform threads, outside
+ * the query limit. Requires Java 21.
+ */
+public final class AsyncDao implements AutoCloseable {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    // CPU-bound password hashing, kept off the query permits and limited to the cores
+    private final ExecutorService hashExecutor;
+
+    /**
+     * Create a facade allowing as many concurrent queries as the connection pool has connections.
+     */
+    public AsyncDao() {
+        this(DBConnection.getPool().getMaxSize());
+    }
+
+    /**
+     * @param maxConcurrentQueries Queries allowed to hold a connection at the same time
+     */
+    public AsyncDao(int maxConcurrentQueries) {
+        if (maxConcurrentQueries < 1) {
+            throw new IllegalArgumentException("maxConcurrentQueries must be at least 1");
+        }
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("jobportal-async-", 0).factory());
+        this.permits = new Semaphore(maxConcurrentQueries, true);
+        this.hashExecutor = Executors.newFixedThreadPool(
+                Math.max(1, Integer.getInteger("jobportal.auth.hashThreads", Runtime.getRuntime().availableProcessors())),
+                Thread.ofPlatform().name("jobportal-hash-", 0).daemon().factory());
+    }
+
+    /**
+     * Run any model call asynchronously, within the concurrency limit.
+     *
+     * @param query The blocking call, e.g. {@code () -> JobPosting.findByCompanyId(id)}
+     * @return A future completed with the call's result, or exceptionally if it threw
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return query.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Same result as {@link User#authenticate}, but only the lookup and a rehash UPDATE hold a
+     * query permit; verifying and re-hashing the password run on the hashing pool.
+     */
+    public CompletableFuture<User> authenticate(String email, String password) {
+        return supply(() -> User.findByEmail(email))
+                .thenApplyAsync(user -> PasswordHasher.verify(password, user != null ? user.getPassword() : null)
+                        ? user : null, hashExecutor)
+                .thenCompose(user -> {
+                    if (user == null || !PasswordHasher.needsRehash(user.getPassword())) {
+                        return CompletableFuture.completedFuture(user);
+                    }
+                    return CompletableFuture.supplyAsync(() -> PasswordHasher.hash(password), hashExecutor)
+                            .thenCompose(hash -> supply(() -> {
+                                user.updatePasswordHash(hash);
+                                return user;
+                            }));
+                });
+    }
+
+    // Users
+
+    public CompletableFuture<User> findUserById(int userId) {
+        return supply(() -> User.findById(userId));
+    }
+
+    public CompletableFuture<User> findUserByEmail(String email) {
+        return supply(() -> User.findByEmail(email));
+    }
+
+    // Jobs
+    public CompletableFuture<JobPosting> findJobById(int jobId) {
+        return supply(() -> JobPosting.findById(jobId));
+    }
+
+    public CompletableFuture<List<JobListing>> searchJobsBySkills(String skills) {
+        return supply(() -> JobListing.searchBySkills(skills));
+    }
+
+    public CompletableFuture<List<JobListing>> searchJobsByLocation(String location) {
+        return supply(() -> JobListing.searchByLocation(location));
+    }
+
+    public CompletableFuture<Page<JobListing>> searchJobPageBySkills(String skills, String cursor, int pageSize) {
+        return supply(() -> JobListing.searchPageBySkills(skills, cursor, pageSize));
+    }
+
+    public CompletableFuture<Page<JobListing>> searchJobPageByLocation(String location, String cursor, int pageSize) {
+        return supply(() -> JobListing.searchPageByLocation(location, cursor, pageSize));
+    }
+
+    public CompletableFuture<Page<JobListing>> findJobPage(String cursor, int pageSize) {
+        return supply(() -> JobListing.findPageByDatePosted(cursor, pageSize));
+    }
+
+    // Companies
+    public CompletableFuture<Company> findCompanyById(int companyId) {
+        return supply(() -> Company.findById(companyId));
+    }
+
+    // Applications and interviews
+    public CompletableFuture<List<ApplicationSummary>> findApplicationSummaries(int userId) {
+        return supply(() -> ApplicationSummary.findByUserId(userId));
+    }
+
+    public CompletableFuture<List<Application>> findApplicationsByUserId(int userId) {
+        return supply(() -> Application.findByUserId(userId));
+    }
+
+    public CompletableFuture<Interview> findInterviewByApplicationId(int applicationId) {
+        return supply(() -> Interview.findByApplicationId(applicationId));
+    }
+
+    // Saves the application unless the user has already applied for the job
+    public CompletableFuture<SaveResult> apply(Application application) {
+        return supply(application::saveIfAbsent);
+    }
+
+    /**
+     * Stop accepting work and wait for running queries to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+        hashExecutor.close();
+    }
+}
@@ -0,0 +1,127 @@
+package jobportal.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2 password hashes, stored as {@code pbkdf2-sha256$<iterations>$<salt>$<hash>}
+ * with Base64 salt and hash.
+ * <p>
+ * The iteration count is kept in each hash, so raising
+ * {@code -Djobportal.auth.pbkdf2Iterations} (default 600000) only affects new hashes; older
+ * ones still verify and report {@link #needsRehash}.
+ */
+public final class PasswordHasher {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final int ITERATIONS = Integer.getInteger("jobportal.auth.pbkdf2Iterations", 600_000);
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder decoder = Base64.getDecoder();
+
+    // Verified against when there is no stored hash, so unknown accounts take as long as known ones
+    private static final String DUMMY_HASH = hash("dummy-password");
+
+    private PasswordHasher() {
+    }
+
+    public static String hash(String password) {
+        return hash(password, ITERATIONS);
+    }
+
+    /**
+     * Hash with a specific iteration count, e.g. a lower one for a bulk load; hashes with fewer
+     * iterations than configured are upgraded at the next successful login.
+     */
+    public static String hash(String password, int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be at least 1");
+        }
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    // The iteration count of new hashes
+    public static int getIterations() {
+        return ITERATIONS;
+    }
+
+    /**
+     * Check a password against a stored value. Values that are not hashes yet are compared as
+     * plain text, so accounts created before hashing can still log in and be upgraded.
+     *
+     * @param stored The stored hash, or null to spend the same time and fail
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            pbkdf2("", new byte[SALT_BYTES], iterationsOf(DUMMY_HASH));
+            return false;
+        }
+        if (!isHash(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(pbkdf2(password, salt, iterations), expected);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error verifying password: malformed hash");
+            return false;
+        }
+    }
+
+    public static boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    // True for plain-text values and hashes made with fewer iterations than currently configured
+    public static boolean needsRehash(String stored) {
+        return !isHash(stored) || iterationsOf(stored) < ITERATIONS;
+    }
+
+    // Hash a value unless it already is one
+    public static String hashIfNeeded(String password) {
+        return hashIfNeeded(password, ITERATIONS);
+    }
+
+    public static String hashIfNeeded(String password, int iterations) {
+        return password == null || isHash(password) ? password : hash(password, iterations);
+    }
+
+    private static int iterationsOf(String stored) {
+        int start = PREFIX.length();
+        int end = stored.indexOf('$', start);
+        try {
+            return end > start ? Integer.parseInt(stored.substring(start, end)) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
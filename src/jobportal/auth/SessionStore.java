@@ -0,0 +1,113 @@
+package jobportal.auth;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import jobportal.cache.BoundedCache;
+import jobportal.cache.CacheStats;
+import jobportal.model.User;
+
+/**
+ * Server-side login sessions keyed by opaque random tokens.
+ * <p>
+ * The password is verified once at {@link #login}; after that {@link #resolve} returns the
+ * logged-in user from memory, without a database query. Sessions end after
+ * {@code -Djobportal.session.idleMinutes} (default 30) without use or
+ * {@code -Djobportal.session.maxHours} (default 12) after login, whichever comes first. At most
+ * {@code -Djobportal.session.maxSessions} (default 100000) are kept; beyond that the least
+ * recently used session is dropped.
+ */
+public class SessionStore {
+    private static final int TOKEN_BYTES = 32;
+
+    private final BoundedCache<String, Session> sessions;
+    private final long idleTimeoutNanos;
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    private static final class Session {
+        private final User user;
+        private volatile long lastAccess;
+
+        private Session(User user, long now) {
+            this.user = user;
+            this.lastAccess = now;
+        }
+    }
+
+    public SessionStore() {
+        this(Integer.getInteger("jobportal.session.maxSessions", 100_000),
+                TimeUnit.MINUTES.toMillis(Long.getLong("jobportal.session.idleMinutes", 30L)),
+                TimeUnit.HOURS.toMillis(Long.getLong("jobportal.session.maxHours", 12L)));
+    }
+
+    /**
+     * @param maxSessions Maximum number of live sessions
+     * @param idleTimeoutMillis Time without use after which a session ends, 0 for none
+     * @param maxLifetimeMillis Time after login after which a session ends, 0 for none
+     */
+    public SessionStore(int maxSessions, long idleTimeoutMillis, long maxLifetimeMillis) {
+        this.sessions = new BoundedCache<>(maxSessions, maxLifetimeMillis);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    }
+
+    /**
+     * Verify the credentials and open a session.
+     *
+     * @return The session token, or null if the email or password is wrong
+     */
+    public String login(String email, String password) {
+        User user = User.authenticate(email, password);
+        return user != null ? create(user) : null;
+    }
+
+    /**
+     * Open a session for an already authenticated user.
+     *
+     * @return The session token
+     */
+    public String create(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = encoder.encodeToString(bytes);
+        sessions.put(token, new Session(user, System.nanoTime()));
+        return token;
+    }
+
+    /**
+     * The user a token belongs to, extending the session's idle timeout.
+     *
+     * @return The user, or null if the token is unknown or its session has ended
+     */
+    public User resolve(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (idleTimeoutNanos > 0 && now - session.lastAccess > idleTimeoutNanos) {
+            sessions.invalidate(token);
+            return null;
+        }
+        session.lastAccess = now;
+        return session.user;
+    }
+
+    // End a session; unknown tokens are ignored
+    public void invalidate(String token) {
+        if (token != null) {
+            sessions.invalidate(token);
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public CacheStats stats() {
+        return sessions.stats();
+    }
+}
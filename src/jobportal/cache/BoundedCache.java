@@ -0,0 +1,152 @@
+package jobportal.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe in-process cache bounded by entry count and time to live.
+ * When full, the least recently used entry is evicted. Expired entries are dropped
+ * lazily when they are read or reach the least recently used end of the cache.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class BoundedCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Bumped by every invalidation; guarded by entries
+    private long generation = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * @param maxSize Maximum number of entries
+     * @param ttlMillis Time to live of an entry after it is written, 0 for no expiry
+     */
+    public BoundedCache(int maxSize, long ttlMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Look up a value.
+     *
+     * @param key The key
+     * @return The cached value, or null if it is absent or expired
+     */
+    public V get(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && isExpired(entry, System.nanoTime())) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    /**
+     * Store a value, evicting the least recently used entry if the cache is full.
+     */
+    public void put(K key, V value) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            store(key, value, now);
+        }
+    }
+
+    /**
+     * The number of invalidations so far. Read it before loading a value from its source and pass it to
+     * {@link #putIfNotInvalidated}, so a load that raced with a write is not cached.
+     */
+    public long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Store a value loaded after {@link #generation()} returned {@code generation}, unless the cache has been
+     * invalidated since: the value may then predate the write that invalidated it.
+     *
+     * @return Whether the value was stored
+     */
+    public boolean putIfNotInvalidated(K key, V value, long generation) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            if (generation != this.generation) {
+                return false;
+            }
+            store(key, value, now);
+            return true;
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+            generation++;
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            generation++;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size(), maxSize);
+    }
+
+    // Caller holds entries
+    private void store(K key, V value, long now) {
+        if (entries.put(key, new Entry<>(value, now + ttlNanos)) == null && entries.size() > maxSize) {
+            Iterator<Entry<V>> leastRecentlyUsed = entries.values().iterator();
+            Entry<V> eldest = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            if (isExpired(eldest, now)) {
+                expirations.increment();
+            } else {
+                evictions.increment();
+            }
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return ttlNanos > 0 && now - entry.expiresAt > 0;
+    }
+}
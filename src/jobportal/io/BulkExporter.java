@@ -0,0 +1,225 @@
+package jobportal.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import jobportal.DBConnection;
+import jobportal.model.QueryStream;
+
+/**
+ * Streams a full dump of job postings, applications or interviews, joined with the rows they
+ * refer to, into a CSV or JSON Lines file.
+ * <p>
+ * Each export is a single joined query read with a server-side cursor and written row by row
+ * through one reused line buffer, so memory use does not grow with the table size. Output goes
+ * to a temporary file next to the target and is moved into place only when the export finished,
+ * so readers never see a partial dump. File names ending in {@code .gz} are gzip compressed.
+ */
+public class BulkExporter {
+    public enum Kind { JOBS, APPLICATIONS, INTERVIEWS }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String JOBS_SQL =
+            "SELECT j.job_id, j.title, j.description, j.location, j.skills_required, j.date_posted, " +
+            "j.company_id, c.name AS company_name, c.location AS company_location, c.industry AS company_industry " +
+            "FROM Job_Postings j LEFT JOIN Companies c ON c.company_id = j.company_id " +
+            "ORDER BY j.job_id";
+
+    // Passwords are never exported
+    private static final String APPLICATIONS_SQL =
+            "SELECT a.application_id, a.application_date, a.status, " +
+            "a.user_id, u.name AS user_name, u.email AS user_email, u.location AS user_location, " +
+            "a.job_id, j.title AS job_title, j.location AS job_location, c.name AS company_name " +
+            "FROM Applications a " +
+            "LEFT JOIN Users u ON u.user_id = a.user_id " +
+            "LEFT JOIN Job_Postings j ON j.job_id = a.job_id " +
+            "LEFT JOIN Companies c ON c.company_id = j.company_id " +
+            "ORDER BY a.application_id";
+
+    private static final String INTERVIEWS_SQL =
+            "SELECT i.interview_id, i.scheduled_date, i.status, i.feedback, " +
+            "i.start_time, i.end_time, i.interviewer, i.room, " +
+            "i.application_id, a.status AS application_status, " +
+            "a.user_id, u.name AS user_name, u.email AS user_email, " +
+            "a.job_id, j.title AS job_title, c.name AS company_name " +
+            "FROM Interviews i " +
+            "LEFT JOIN Applications a ON a.application_id = i.application_id " +
+            "LEFT JOIN Users u ON u.user_id = a.user_id " +
+            "LEFT JOIN Job_Postings j ON j.job_id = a.job_id " +
+            "LEFT JOIN Companies c ON c.company_id = j.company_id " +
+            "ORDER BY i.interview_id";
+
+    private final Kind kind;
+    private final Path output;
+    private int fetchSize = QueryStream.DEFAULT_FETCH_SIZE;
+
+    /**
+     * @param kind What to export
+     * @param output Target file; {@code .csv} or {@code .csv.gz} writes CSV, anything else JSON Lines
+     */
+    public BulkExporter(Kind kind, Path output) {
+        this.kind = kind;
+        this.output = output;
+    }
+
+    // Rows fetched from the server per round trip
+    public BulkExporter withFetchSize(int fetchSize) {
+        this.fetchSize = Math.max(1, fetchSize);
+        return this;
+    }
+
+    /**
+     * Run the export.
+     *
+     * @return The number of rows written
+     * @throws IOException if the query or writing the file fails; the target file is left untouched
+     */
+    public long run() throws IOException {
+        String name = output.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean gzip = name.endsWith(".gz");
+        boolean csv = (gzip ? name.substring(0, name.length() - 3) : name).endsWith(".csv");
+        Path temp = output.resolveSibling(output.getFileName() + ".part");
+
+        long rows;
+        try (Connection conn = DBConnection.getConnection();
+             // The three-argument form bypasses the statement cache: this statement stays open for the whole export
+             PreparedStatement stmt = conn.prepareStatement(sqlFor(kind), ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery();
+                 Writer out = open(temp, gzip)) {
+                rows = csv ? writeCsv(rs, out) : writeJsonLines(rs, out);
+            }
+        } catch (SQLException | IOException e) {
+            Files.deleteIfExists(temp);
+            throw new IOException("Export of " + kind.name().toLowerCase(Locale.ROOT) + " failed: " + e.getMessage(), e);
+        }
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    private static String sqlFor(Kind kind) {
+        switch (kind) {
+            case JOBS:
+                return JOBS_SQL;
+            case APPLICATIONS:
+                return APPLICATIONS_SQL;
+            case INTERVIEWS:
+                return INTERVIEWS_SQL;
+            default:
+                throw new IllegalStateException("Unknown kind: " + kind);
+        }
+    }
+
+    private static Writer open(Path file, boolean gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static long writeCsv(ResultSet rs, Writer out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        StringBuilder line = new StringBuilder(256);
+
+        for (int i = 1; i <= columns; i++) {
+            if (i > 1) line.append(',');
+            CsvFormat.appendField(line, meta.getColumnLabel(i));
+        }
+        out.append(line).append("\r\n");
+
+        long rows = 0;
+        while (rs.next()) {
+            line.setLength(0);
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) line.append(',');
+                String value = rs.getString(i);
+                if (value != null) {
+                    CsvFormat.appendField(line, value);
+                }
+            }
+            out.append(line).append("\r\n");
+            rows++;
+        }
+        return rows;
+    }
+
+    private static long writeJsonLines(ResultSet rs, Writer out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[] keys = new String[columns + 1];
+        boolean[] numeric = new boolean[columns + 1];
+        for (int i = 1; i <= columns; i++) {
+            StringBuilder key = new StringBuilder();
+            JsonLines.appendString(key, meta.getColumnLabel(i));
+            keys[i] = key.append(':').toString();
+            int type = meta.getColumnType(i);
+            numeric[i] = type == Types.INTEGER || type == Types.BIGINT || type == Types.SMALLINT
+                    || type == Types.TINYINT || type == Types.DECIMAL || type == Types.NUMERIC;
+        }
+
+        StringBuilder line = new StringBuilder(256);
+        long rows = 0;
+        while (rs.next()) {
+            line.setLength(0);
+            line.append('{');
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) line.append(',');
+                line.append(keys[i]);
+                String value = rs.getString(i);
+                if (value == null) {
+                    line.append("null");
+                } else if (numeric[i]) {
+                    line.append(value);
+                } else {
+                    JsonLines.appendString(line, value);
+                }
+            }
+            out.append(line.append('}')).append('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Command line entry point:
+     * {@code BulkExporter <jobs|applications|interviews> <file.csv|file.jsonl>[.gz]}
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BulkExporter <jobs|applications|interviews> <file.csv|file.jsonl>[.gz]");
+            System.exit(2);
+        }
+        Kind kind = Kind.valueOf(args[0].toUpperCase(Locale.ROOT));
+        Path output = Paths.get(args[1]);
+
+        DBConnection.initialize();
+        try {
+            long started = System.currentTimeMillis();
+            long rows = new BulkExporter(kind, output).run();
+            System.out.println("Exported " + rows + " rows to " + output + " in "
+                    + (System.currentTimeMillis() - started) + " ms");
+        } finally {
+            DBConnection.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,643 @@
+package jobportal.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import jobportal.DBConnection;
+import jobportal.auth.PasswordHasher;
+import jobportal.model.Company;
+import jobportal.model.JobPosting;
+import jobportal.model.Page;
+import jobportal.model.User;
+
+/**
+ * Bulk import of companies, job postings or users from a CSV (with header row) or JSON Lines file.
+ * <p>
+ * The import runs as a three-stage pipeline connected by bounded queues, so a slow stage
+ * applies back-pressure to the ones before it:
+ * <ol>
+ *     <li>a parser thread reads the file and cuts it into numbered chunks of records,</li>
+ *     <li>a pool of validator threads turns records into model objects, normalizing fields and
+ *     rejecting bad records, and</li>
+ *     <li>the calling thread writes chunks in file order with the model {@code saveAll} methods,
+ *     one transaction per chunk, and records a checkpoint after each one.</li>
+ * </ol>
+ * If a run stops part way, running it again with the same checkpoint file skips the records that
+ * were already committed. Job postings name their company; names are resolved through an
+ * in-memory map of all companies loaded once at the start.
+ */
+public class BulkImporter {
+    public enum Kind { COMPANIES, JOBS, USERS }
+
+    private static final int DEFAULT_CHUNK_SIZE = 1_000;
+    private static final int MAX_TEXT_LENGTH = 100;
+
+    private final Kind kind;
+    private final Path input;
+    private final Path checkpoint;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int passwordIterations = PasswordHasher.getIterations();
+
+    /**
+     * @param kind What the file contains
+     * @param input CSV file (.csv) or JSON Lines file (any other extension)
+     * @param checkpoint File recording how many records have been committed
+     */
+    public BulkImporter(Kind kind, Path input, Path checkpoint) {
+        this.kind = kind;
+        this.input = input;
+        this.checkpoint = checkpoint;
+    }
+
+    // Records per chunk, and so per transaction
+    public BulkImporter withChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+        return this;
+    }
+
+    // Number of validator threads
+    public BulkImporter withWorkers(int workers) {
+        this.workers = Math.max(1, workers);
+        return this;
+    }
+
+    /**
+     * PBKDF2 iterations for hashing imported plain-text passwords. Each hash costs about as much
+     * CPU as a login, so at the default 600000 iterations a users import is bound by hashing,
+     * not by the database. A lower count speeds the import up; those hashes are upgraded to the
+     * configured count at each user's next successful login.
+     */
+    public BulkImporter withPasswordIterations(int passwordIterations) {
+        this.passwordIterations = Math.max(1, passwordIterations);
+        return this;
+    }
+
+    /**
+     * Counters of a finished import.
+     */
+    public static class Result {
+        private final long skipped;
+        private final long read;
+        private final long imported;
+        private final long rejected;
+        private final long elapsedMillis;
+
+        Result(long skipped, long read, long imported, long rejected, long elapsedMillis) {
+            this.skipped = skipped;
+            this.read = read;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        // Records skipped because an earlier run had already committed them
+        public long getSkipped() { return skipped; }
+
+        public long getRead() { return read; }
+
+        public long getImported() { return imported; }
+
+        public long getRejected() { return rejected; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "skipped=" + skipped +
+                    ", read=" + read +
+                    ", imported=" + imported +
+                    ", rejected=" + rejected +
+                    ", elapsedMillis=" + elapsedMillis +
+                    '}';
+        }
+    }
+
+    /**
+     * Run the import.
+     *
+     * @return Counters for this run
+     * @throws IOException if the input cannot be read, or the database refuses a whole chunk
+     */
+    public Result run() throws IOException, InterruptedException {
+        switch (kind) {
+            case COMPANIES:
+                return run(new CompanyHandler());
+            case JOBS:
+                return run(new JobHandler(loadCompanyIds()));
+            case USERS:
+                return run(new UserHandler(passwordIterations));
+            default:
+                throw new IllegalStateException("Unknown kind: " + kind);
+        }
+    }
+
+    // One raw input record; CSV records are split already, JSON lines are parsed by the validators
+    private static final class Record {
+        private final long number;
+        private final List<String> csvFields;
+        private final String jsonLine;
+
+        private Record(long number, List<String> csvFields, String jsonLine) {
+            this.number = number;
+            this.csvFields = csvFields;
+            this.jsonLine = jsonLine;
+        }
+    }
+
+    private static final class Chunk {
+        private static final Chunk END = new Chunk(-1, -1, null);
+
+        private final long sequence;
+        // Number of the last record this chunk covers, for the checkpoint
+        private final long lastRecord;
+        private final List<Record> records;
+
+        private Chunk(long sequence, long lastRecord, List<Record> records) {
+            this.sequence = sequence;
+            this.lastRecord = lastRecord;
+            this.records = records;
+        }
+    }
+
+    private static final class ValidChunk<T> {
+        private final long sequence;
+        private final long lastRecord;
+        private final List<T> entities;
+        private final List<Long> recordNumbers;
+
+        private ValidChunk(long sequence, long lastRecord, List<T> entities, List<Long> recordNumbers) {
+            this.sequence = sequence;
+            this.lastRecord = lastRecord;
+            this.entities = entities;
+            this.recordNumbers = recordNumbers;
+        }
+    }
+
+    private <T> Result run(EntityHandler<T> handler) throws IOException, InterruptedException {
+        long startedAt = System.currentTimeMillis();
+        long alreadyDone = readCheckpoint();
+        int queueCapacity = workers * 2;
+        BlockingQueue<Chunk> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ValidChunk<T>> validated = new ArrayBlockingQueue<>(queueCapacity);
+        ValidChunk<T> endOfValidation = new ValidChunk<>(-1, -1, null, null);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong read = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+
+        ExecutorService threads = Executors.newFixedThreadPool(workers + 1, r -> {
+            Thread t = new Thread(r, "jobportal-import");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            threads.execute(() -> parse(parsed, alreadyDone, read, failure));
+            for (int i = 0; i < workers; i++) {
+                threads.execute(() -> validate(handler, parsed, validated, endOfValidation, rejected, failure));
+            }
+
+            // Write stage: chunks can arrive out of order from the validators, so buffer until the next one is here
+            Map<Long, ValidChunk<T>> waiting = new HashMap<>();
+            long nextSequence = 0;
+            long imported = 0;
+            int finishedWorkers = 0;
+            while (finishedWorkers < workers) {
+                ValidChunk<T> chunk = validated.take();
+                if (chunk == endOfValidation) {
+                    finishedWorkers++;
+                    continue;
+                }
+                if (failure.get() != null) {
+                    // Stop at the first failure; a chunk may be missing, and the checkpoint lets a rerun resume
+                    break;
+                }
+                waiting.put(chunk.sequence, chunk);
+                while ((chunk = waiting.remove(nextSequence)) != null) {
+                    int saved = write(handler, chunk);
+                    imported += saved;
+                    rejected.addAndGet(chunk.entities.size() - saved);
+                    writeCheckpoint(chunk.lastRecord);
+                    nextSequence++;
+                }
+            }
+
+            Exception error = failure.get();
+            if (error != null) {
+                throw new IOException("Import stopped: " + error.getMessage(), error);
+            }
+            return new Result(alreadyDone, read.get(), imported, rejected.get(),
+                    System.currentTimeMillis() - startedAt);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    // Parse stage: read records, skip the ones a previous run committed, and cut the rest into chunks
+    private void parse(BlockingQueue<Chunk> parsed, long alreadyDone, AtomicLong read,
+                       AtomicReference<Exception> failure) {
+        boolean csv = input.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            CsvFormat.RecordReader csvReader = csv ? new CsvFormat.RecordReader(reader) : null;
+            List<String> header = null;
+            if (csv) {
+                header = csvReader.read();
+                if (header == null) {
+                    return;
+                }
+            }
+
+            long number = 0;
+            long sequence = 0;
+            List<Record> records = new ArrayList<>(chunkSize);
+            while (true) {
+                Record record;
+                if (csv) {
+                    List<String> fields = csvReader.read();
+                    if (fields == null) {
+                        break;
+                    }
+                    number++;
+                    if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                        continue;
+                    }
+                    record = new Record(number, zipWithHeader(header, fields), null);
+                } else {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    number++;
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    record = new Record(number, null, line);
+                }
+                if (number <= alreadyDone) {
+                    continue;
+                }
+                read.incrementAndGet();
+                records.add(record);
+                if (records.size() == chunkSize) {
+                    parsed.put(new Chunk(sequence++, number, records));
+                    records = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!records.isEmpty()) {
+                parsed.put(new Chunk(sequence, number, records));
+            }
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            // One end marker per validator
+            for (int i = 0; i < workers && !Thread.currentThread().isInterrupted(); i++) {
+                try {
+                    parsed.put(Chunk.END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // Pair each CSV field with its column name as a flat [name, value, name, value, ...] list
+    private static List<String> zipWithHeader(List<String> header, List<String> fields) {
+        List<String> zipped = new ArrayList<>(header.size() * 2);
+        for (int i = 0; i < header.size(); i++) {
+            zipped.add(header.get(i));
+            zipped.add(i < fields.size() ? fields.get(i) : "");
+        }
+        return zipped;
+    }
+
+    // Validate stage: turn records into model objects
+    private <T> void validate(EntityHandler<T> handler, BlockingQueue<Chunk> parsed,
+                              BlockingQueue<ValidChunk<T>> validated, ValidChunk<T> endOfValidation,
+                              AtomicLong rejected, AtomicReference<Exception> failure) {
+        try {
+            while (true) {
+                Chunk chunk = parsed.take();
+                if (chunk == Chunk.END) {
+                    break;
+                }
+                List<T> entities = new ArrayList<>(chunk.records.size());
+                List<Long> recordNumbers = new ArrayList<>(chunk.records.size());
+                for (Record record : chunk.records) {
+                    try {
+                        entities.add(handler.toEntity(fieldsOf(record)));
+                        recordNumbers.add(record.number);
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                        System.err.println("Record " + record.number + " rejected: " + e.getMessage());
+                    }
+                }
+                validated.put(new ValidChunk<>(chunk.sequence, chunk.lastRecord, entities, recordNumbers));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // A bug rather than a bad record: stop the import instead of leaving a gap in the chunk sequence
+            failure.compareAndSet(null, e);
+        } finally {
+            // Always, so the write stage never waits for a worker that has died
+            try {
+                validated.put(endOfValidation);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Map<String, String> fieldsOf(Record record) {
+        Map<String, String> raw;
+        if (record.csvFields != null) {
+            raw = new LinkedHashMap<>();
+            for (int i = 0; i < record.csvFields.size(); i += 2) {
+                raw.put(record.csvFields.get(i), record.csvFields.get(i + 1));
+            }
+        } else {
+            raw = JsonLines.parseObject(record.jsonLine);
+        }
+        // Normalize keys so "Skills Required", "skills_required" and "skillsRequired" all work
+        Map<String, String> fields = new HashMap<>();
+        for (Map.Entry<String, String> entry : raw.entrySet()) {
+            String key = entry.getKey().trim().replaceAll("[\\s_]", "").toLowerCase(Locale.ROOT);
+            fields.put(key, entry.getValue());
+        }
+        return fields;
+    }
+
+    // Write stage: save a chunk in one transaction, falling back to row-by-row saves to isolate bad rows
+    private <T> int write(EntityHandler<T> handler, ValidChunk<T> chunk) throws IOException {
+        if (chunk.entities.isEmpty()) {
+            return 0;
+        }
+        int saved = handler.saveAll(chunk.entities);
+        if (saved == chunk.entities.size()) {
+            return saved;
+        }
+
+        saved = 0;
+        for (int i = 0; i < chunk.entities.size(); i++) {
+            if (handler.save(chunk.entities.get(i))) {
+                saved++;
+            } else {
+                System.err.println("Record " + chunk.recordNumbers.get(i) + " rejected by the database");
+            }
+        }
+        if (saved == 0 && chunk.entities.size() > 1) {
+            // Nothing at all went in: more likely the database is unavailable than every row being bad
+            throw new IOException("Database rejected every record up to record " + chunk.lastRecord
+                    + "; fix the problem and run again to resume");
+        }
+        return saved;
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (checkpoint == null || !Files.exists(checkpoint)) {
+            return 0;
+        }
+        String text = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim();
+        try {
+            return text.isEmpty() ? 0 : Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid checkpoint file " + checkpoint + ": " + text);
+        }
+    }
+
+    // Replace the checkpoint atomically so a crash never leaves a half-written file
+    private void writeCheckpoint(long recordsDone) throws IOException {
+        if (checkpoint == null) {
+            return;
+        }
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.write(temp, Long.toString(recordsDone).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // All companies by normalized name, loaded page by page
+    private static Map<String, Integer> loadCompanyIds() {
+        Map<String, Integer> ids = new HashMap<>();
+        String cursor = null;
+        do {
+            Page<Company> page = Company.findPage(cursor, 1_000);
+            for (Company company : page.getItems()) {
+                if (company.getName() != null) {
+                    ids.put(nameKey(company.getName()), company.getCompanyId());
+                }
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Per-kind validation and persistence.
+     */
+    private abstract static class EntityHandler<T> {
+        // Throws IllegalArgumentException with the reason if the record is invalid
+        abstract T toEntity(Map<String, String> fields);
+
+        abstract int saveAll(List<T> entities);
+
+        abstract boolean save(T entity);
+
+        static String required(Map<String, String> fields, String key) {
+            String value = optional(fields, key);
+            if (value == null) {
+                throw new IllegalArgumentException("missing " + key);
+            }
+            return value;
+        }
+
+        static String optional(Map<String, String> fields, String key) {
+            String value = fields.get(key);
+            if (value == null) {
+                return null;
+            }
+            value = value.trim();
+            if (value.isEmpty()) {
+                return null;
+            }
+            if (value.length() > MAX_TEXT_LENGTH && !key.equals("description") && !key.contains("skills")) {
+                throw new IllegalArgumentException(key + " is longer than " + MAX_TEXT_LENGTH + " characters");
+            }
+            return value;
+        }
+
+        // "java ,Spring;  SQL, Java" -> "java, Spring, SQL"
+        static String normalizeSkills(String skills) {
+            if (skills == null) {
+                return null;
+            }
+            Set<String> seen = new LinkedHashSet<>();
+            List<String> kept = new ArrayList<>();
+            for (String part : skills.split("[,;]")) {
+                String skill = part.trim().replaceAll("\\s+", " ");
+                if (!skill.isEmpty() && seen.add(skill.toLowerCase(Locale.ROOT))) {
+                    kept.add(skill);
+                }
+            }
+            return kept.isEmpty() ? null : String.join(", ", kept);
+        }
+    }
+
+    private static final class CompanyHandler extends EntityHandler<Company> {
+        private final Set<String> seenNames = ConcurrentHashMap.newKeySet();
+
+        @Override
+        Company toEntity(Map<String, String> fields) {
+            String name = required(fields, "name");
+            Company company = new Company(name, optional(fields, "location"), optional(fields, "industry"));
+            // Claimed only once the record is otherwise valid, so a rejected record does not block a later good one
+            if (!seenNames.add(nameKey(name))) {
+                throw new IllegalArgumentException("duplicate company name '" + name + "' in input");
+            }
+            return company;
+        }
+
+        @Override
+        int saveAll(List<Company> entities) { return Company.saveAll(entities, entities.size()); }
+
+        @Override
+        boolean save(Company entity) { return entity.save(); }
+    }
+
+    private static final class JobHandler extends EntityHandler<JobPosting> {
+        private final Map<String, Integer> companyIds;
+
+        private JobHandler(Map<String, Integer> companyIds) {
+            this.companyIds = companyIds;
+        }
+
+        @Override
+        JobPosting toEntity(Map<String, String> fields) {
+            String title = required(fields, "title");
+            int companyId = resolveCompany(fields);
+            String datePosted = optional(fields, "dateposted");
+            Date date;
+            try {
+                date = datePosted != null ? Date.valueOf(datePosted) : new Date(System.currentTimeMillis());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("date_posted '" + datePosted + "' is not yyyy-mm-dd");
+            }
+            return new JobPosting(companyId, title, optional(fields, "description"), optional(fields, "location"),
+                    normalizeSkills(optional(fields, "skillsrequired")), date);
+        }
+
+        private int resolveCompany(Map<String, String> fields) {
+            String companyId = optional(fields, "companyid");
+            if (companyId != null) {
+                try {
+                    return Integer.parseInt(companyId);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("company_id '" + companyId + "' is not a number");
+                }
+            }
+            String name = optional(fields, "company");
+            if (name == null) {
+                name = required(fields, "companyname");
+            }
+            Integer id = companyIds.get(nameKey(name));
+            if (id == null) {
+                throw new IllegalArgumentException("unknown company '" + name + "'");
+            }
+            return id;
+        }
+
+        @Override
+        int saveAll(List<JobPosting> entities) { return JobPosting.saveAll(entities, entities.size()); }
+
+        @Override
+        boolean save(JobPosting entity) { return entity.save(); }
+    }
+
+    private static final class UserHandler extends EntityHandler<User> {
+        private final Set<String> seenEmails = ConcurrentHashMap.newKeySet();
+        private final int passwordIterations;
+
+        private UserHandler(int passwordIterations) {
+            this.passwordIterations = passwordIterations;
+        }
+
+        @Override
+        User toEntity(Map<String, String> fields) {
+            String email = required(fields, "email").toLowerCase(Locale.ROOT);
+            int at = email.indexOf('@');
+            if (at <= 0 || at == email.length() - 1 || email.indexOf(' ') >= 0) {
+                throw new IllegalArgumentException("invalid email '" + email + "'");
+            }
+            String name = required(fields, "name");
+            String password = required(fields, "password");
+            String location = optional(fields, "location");
+            String skills = normalizeSkills(optional(fields, "skills"));
+            // Claimed only once the record is otherwise valid, so a rejected record does not block a later good one
+            if (!seenEmails.add(email)) {
+                throw new IllegalArgumentException("duplicate email '" + email + "' in input");
+            }
+            // Hashed here on the validator workers, so saveAll on the writer thread has nothing left to hash
+            return new User(name, email, PasswordHasher.hashIfNeeded(password, passwordIterations), location, skills);
+        }
+
+        @Override
+        int saveAll(List<User> entities) { return User.saveAll(entities, entities.size()); }
+
+        @Override
+        boolean save(User entity) { return entity.save(); }
+    }
+
+    /**
+     * Command line entry point:
+     * {@code BulkImporter <companies|jobs|users> <file> [checkpoint-file]}
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BulkImporter <companies|jobs|users> <file.csv|file.jsonl> [checkpoint-file]");
+            System.exit(2);
+        }
+        Kind kind = Kind.valueOf(args[0].toUpperCase(Locale.ROOT));
+        Path input = Paths.get(args[1]);
+        Path checkpoint = args.length > 2 ? Paths.get(args[2]) : Paths.get(args[1] + ".checkpoint");
+
+        DBConnection.initialize();
+        try {
+            Result result = new BulkImporter(kind, input, checkpoint)
+                    .withChunkSize(Integer.getInteger("jobportal.import.chunkSize", DEFAULT_CHUNK_SIZE))
+                    .withWorkers(Integer.getInteger("jobportal.import.workers", Runtime.getRuntime().availableProcessors()))
+                    .withPasswordIterations(Integer.getInteger("jobportal.import.pbkdf2Iterations",
+                            PasswordHasher.getIterations()))
+                    .run();
+            System.out.println("Import finished: " + result);
+        } finally {
+            DBConnection.closeConnection();
+        }
+    }
+}
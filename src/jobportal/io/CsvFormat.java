@@ -0,0 +1,116 @@
+package jobportal.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV support: quoted fields, doubled quotes and line breaks inside quotes.
+ */
+public final class CsvFormat {
+    private CsvFormat() {
+    }
+
+    /**
+     * Reads CSV records one at a time. Not thread-safe.
+     */
+    public static final class RecordReader {
+        private final Reader in;
+        private int pending = -2;
+
+        public RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * Read the next record.
+         *
+         * @return The record's fields, or null at end of input
+         * @throws IOException if reading fails or a quoted field is never closed
+         */
+        public List<String> read() throws IOException {
+            int c = next();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int after = next();
+                        if (after == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = after;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    int after = next();
+                    if (after != '\n') {
+                        pending = after;
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = next();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private int next() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return in.read();
+        }
+    }
+
+    /**
+     * Append a field to a CSV line, quoting it if needed.
+     */
+    public static void appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,342 @@
+package jobportal.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import jobportal.DBConnection;
+import jobportal.metrics.LatencyHistogram;
+import jobportal.metrics.QueryMetrics;
+import jobportal.model.Application;
+import jobportal.model.ApplicationStatus;
+import jobportal.model.ApplicationSummary;
+import jobportal.model.JobListing;
+import jobportal.model.JobPosting;
+import jobportal.model.Page;
+import jobportal.model.SaveResult;
+import jobportal.model.User;
+import jobportal.search.SkillDictionary;
+
+/**
+ * Closed-loop load generator that replays {@code JobPortalApp} user journeys.
+ * <p>
+ * Each simulated user runs on its own virtual thread: it logs in once, then repeatedly picks an
+ * operation from a weighted mix, makes the same model calls as the console menu item, and
+ * thinks for an exponentially distributed time before the next one.
+ * <p>
+ * Latency is measured from when each operation was <em>meant</em> to start, not when it actually
+ * started: every user follows a schedule of intended start times (the previous intended start
+ * plus its think time), so when the system stalls, the operations a real user would have issued
+ * during the stall are charged the time they spent waiting. Without this coordinated-omission
+ * correction a closed-loop test hides exactly the stalls it should expose. Raw service times are
+ * reported alongside for comparison.
+ */
+public class LoadGenerator {
+    public enum Operation { LOGIN, SEARCH_SKILLS, SEARCH_LOCATION, BROWSE, APPLY, APPLICATIONS, INTERVIEWS }
+
+    private final List<String[]> credentials;
+    private final int users;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final long meanThinkNanos;
+    private final Map<Operation, Integer> mix;
+
+    private final Map<Operation, LatencyHistogram> latency = new EnumMap<>(Operation.class);
+    private final Map<Operation, LatencyHistogram> serviceTime = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    // Search terms and job IDs sampled from the database before the run
+    private final List<String> skills = new ArrayList<>();
+    private final List<String> locations = new ArrayList<>();
+    private final List<Integer> jobIds = new ArrayList<>();
+
+    private volatile boolean measuring = false;
+    private volatile boolean stopping = false;
+
+    /**
+     * @param credentials {email, password} pairs, assigned to simulated users round robin
+     * @param users Number of concurrent simulated users
+     * @param durationMillis Measured run time, after the warmup
+     * @param warmupMillis Time to run before recording starts
+     * @param meanThinkMillis Mean think time between a user's operations
+     * @param mix Relative weight of each operation after login
+     */
+    public LoadGenerator(List<String[]> credentials, int users, long durationMillis, long warmupMillis,
+                         long meanThinkMillis, Map<Operation, Integer> mix) {
+        if (credentials.isEmpty()) {
+            throw new IllegalArgumentException("At least one set of credentials is required");
+        }
+        this.credentials = credentials;
+        this.users = users;
+        this.durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        this.warmupNanos = TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        this.meanThinkNanos = TimeUnit.MILLISECONDS.toNanos(meanThinkMillis);
+        this.mix = mix;
+        for (Operation operation : Operation.values()) {
+            latency.put(operation, new LatencyHistogram());
+            serviceTime.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Run the load and print the report to standard output.
+     */
+    public void run() throws InterruptedException {
+        sampleSearchTerms();
+
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                String[] login = credentials.get(i % credentials.size());
+                executor.execute(() -> simulateUser(login[0], login[1], startedAt));
+            }
+
+            sleepUntil(startedAt + warmupNanos);
+            for (Operation operation : Operation.values()) {
+                latency.get(operation).reset();
+                serviceTime.get(operation).reset();
+                errors.get(operation).reset();
+            }
+            measuring = true;
+            long measuredFrom = System.nanoTime();
+            sleepUntil(measuredFrom + durationNanos);
+            measuring = false;
+            stopping = true;
+            report(System.nanoTime() - measuredFrom);
+        }
+    }
+
+    private void sampleSearchTerms() {
+        Set<String> skillSet = new LinkedHashSet<>();
+        Set<String> locationSet = new LinkedHashSet<>();
+        String cursor = null;
+        for (int pages = 0; pages < 10; pages++) {
+            Page<JobListing> page = JobListing.findPageByDatePosted(cursor, 100);
+            for (JobListing listing : page.getItems()) {
+                jobIds.add(listing.getJobId());
+                skillSet.addAll(SkillDictionary.tokenize(listing.getSkillsRequired()));
+                if (listing.getLocation() != null) {
+                    locationSet.add(listing.getLocation());
+                }
+            }
+            cursor = page.getNextCursor();
+            if (cursor == null) {
+                break;
+            }
+        }
+        skills.addAll(skillSet);
+        locations.addAll(locationSet);
+        if (skills.isEmpty()) skills.add("Java");
+        if (locations.isEmpty()) locations.add("Remote");
+    }
+
+    private void simulateUser(String email, String password, long startedAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Spread the logins over the first think time so users do not start in lockstep
+        long intendedStart = startedAt + (long) (random.nextDouble() * Math.max(meanThinkNanos, 1));
+
+        User user = null;
+        while (!stopping && user == null) {
+            sleepUntil(intendedStart);
+            user = timed(Operation.LOGIN, intendedStart, () -> User.authenticate(email, password));
+            intendedStart += thinkTime(random);
+        }
+
+        while (!stopping) {
+            sleepUntil(intendedStart);
+            Operation operation = pick(random);
+            User current = user;
+            switch (operation) {
+                case SEARCH_SKILLS:
+                    String skill = skills.get(random.nextInt(skills.size()));
+                    timed(operation, intendedStart, () -> JobListing.searchBySkills(skill));
+                    break;
+                case SEARCH_LOCATION:
+                    String location = locations.get(random.nextInt(locations.size()));
+                    timed(operation, intendedStart, () -> JobListing.searchByLocation(location));
+                    break;
+                case BROWSE:
+                    timed(operation, intendedStart, () -> JobListing.findPageByDatePosted(null, 20));
+                    break;
+                case APPLY:
+                    if (!jobIds.isEmpty()) {
+                        int jobId = jobIds.get(random.nextInt(jobIds.size()));
+                        timed(operation, intendedStart, () -> apply(current, jobId));
+                    }
+                    break;
+                case APPLICATIONS:
+                case INTERVIEWS:
+                    timed(operation, intendedStart, () -> ApplicationSummary.findByUserId(current.getUserId()));
+                    break;
+                default:
+                    break;
+            }
+            intendedStart += thinkTime(random);
+        }
+    }
+
+    // The calls JobPortalApp.applyForJob makes; already having applied is a normal outcome, not an error
+    private static Boolean apply(User user, int jobId) {
+        if (JobPosting.findById(jobId) == null) {
+            return null;
+        }
+        Application application = new Application(jobId, user.getUserId(), new Date(System.currentTimeMillis()), ApplicationStatus.PENDING.getLabel());
+        return application.saveIfAbsent() != SaveResult.FAILED ? Boolean.TRUE : null;
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T run();
+    }
+
+    // Run one operation and record it. A null result, an exception or a failed statement counts as an error;
+    // the model methods return empty results when a query fails, so failures are read from QueryMetrics
+    private <T> T timed(Operation operation, long intendedStart, Call<T> call) {
+        long failuresBefore = QueryMetrics.getThreadErrors();
+        long actualStart = System.nanoTime();
+        T result;
+        try {
+            result = call.run();
+        } catch (RuntimeException e) {
+            result = null;
+        }
+        long end = System.nanoTime();
+        boolean failed = result == null || QueryMetrics.getThreadErrors() != failuresBefore;
+        if (measuring) {
+            latency.get(operation).record(end - intendedStart);
+            serviceTime.get(operation).record(end - actualStart);
+            if (failed) {
+                errors.get(operation).increment();
+            }
+        }
+        return failed ? null : result;
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int total = 0;
+        for (int weight : mix.values()) {
+            total += weight;
+        }
+        int roll = random.nextInt(Math.max(total, 1));
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.BROWSE;
+    }
+
+    private long thinkTime(ThreadLocalRandom random) {
+        return meanThinkNanos == 0 ? 0 : (long) (-Math.log(1.0 - random.nextDouble()) * meanThinkNanos);
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "%d users, %.1f s measured, mean think time %d ms%n",
+                users, seconds, TimeUnit.NANOSECONDS.toMillis(meanThinkNanos));
+        System.out.printf(Locale.ROOT, "%-16s %9s %7s %9s %9s %9s %9s %9s %12s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latency.get(operation);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                    operation.name().toLowerCase(Locale.ROOT),
+                    histogram.getCount(),
+                    errors.get(operation).sum(),
+                    histogram.getCount() / seconds,
+                    millis(histogram.getPercentileNanos(50)),
+                    millis(histogram.getPercentileNanos(99)),
+                    millis(histogram.getPercentileNanos(99.9)),
+                    millis(histogram.getMaxNanos()),
+                    millis(serviceTime.get(operation).getPercentileNanos(99)));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // Read "email,password" lines, skipping blanks and # comments
+    private static List<String[]> readCredentials(String file) throws IOException {
+        List<String[]> credentials = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int comma = line.indexOf(',');
+                if (line.isEmpty() || line.startsWith("#") || comma < 0) {
+                    continue;
+                }
+                credentials.add(new String[]{line.substring(0, comma).trim(), line.substring(comma + 1).trim()});
+            }
+        }
+        return credentials;
+    }
+
+    // "search_skills=30,browse=20,..." with unlisted operations weighted 0
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length == 2) {
+                mix.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+            }
+        }
+        mix.remove(Operation.LOGIN);
+        return mix;
+    }
+
+    /**
+     * Command line entry point: {@code LoadGenerator <credentials-file>}, tuned with
+     * {@code -Djobportal.load.users}, {@code .durationSeconds}, {@code .warmupSeconds},
+     * {@code .thinkMillis} and {@code .mix}.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadGenerator <credentials-file with email,password lines>");
+            System.exit(2);
+        }
+        List<String[]> credentials = readCredentials(args[0]);
+        int users = Integer.getInteger("jobportal.load.users", 100);
+        long duration = Long.getLong("jobportal.load.durationSeconds", 60L) * 1_000;
+        long warmup = Long.getLong("jobportal.load.warmupSeconds", 10L) * 1_000;
+        long think = Long.getLong("jobportal.load.thinkMillis", 1_000L);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("jobportal.load.mix",
+                "search_skills=30,search_location=20,browse=20,apply=5,applications=15,interviews=10"));
+
+        DBConnection.initialize();
+        JobPosting.loadSkillIndex();
+        Application.loadAppliedFilter();
+        try {
+            new LoadGenerator(credentials, users, duration, warmup, think, mix).run();
+        } finally {
+            DBConnection.closeConnection();
+        }
+    }
+}
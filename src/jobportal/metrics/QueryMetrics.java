@@ -0,0 +1,220 @@
+package jobportal.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of per-operation query statistics, published over JMX and as scrapeable text.
+ * <p>
+ * The connection pool reports every statement it executes here. Statistics are kept per calling
+ * operation, the first method on the stack outside the database plumbing, e.g.
+ * {@code User.authenticate}, so the several SQL variants one finder may issue are counted together.
+ * The operation is found once per statement, when it is prepared or created, so a SQL string
+ * shared by two methods is counted under each of them, and rows fetched later, e.g. by a
+ * {@code QueryStream} consumer, still count toward the method that opened the stream.
+ * Disable with {@code -Djobportal.metrics.queries=false}.
+ */
+public final class QueryMetrics implements QueryMetricsMBean {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("jobportal.metrics.queries", "true"));
+
+    private static final String DOMAIN = "jobportal";
+
+    private static final Map<String, QueryStats> byOperation = new ConcurrentHashMap<>();
+    // Failed statements per thread, since model methods report a failed query as an empty result
+    private static final ThreadLocal<long[]> threadErrors = ThreadLocal.withInitial(() -> new long[1]);
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    static {
+        if (ENABLED) {
+            register(new QueryMetrics(), DOMAIN + ":type=QueryMetrics");
+        }
+    }
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * The statistics a statement issued by this operation should be recorded in.
+     *
+     * @param operation The operation from {@link #callingOperation()}
+     * @param sql Shown as the operation's example SQL if this is its first statement
+     */
+    public static QueryStats statsFor(String operation, String sql) {
+        QueryStats stats = byOperation.get(operation);
+        if (stats != null) {
+            return stats;
+        }
+        return byOperation.computeIfAbsent(operation, name -> {
+            QueryStats created = new QueryStats(name, sql);
+            if (ENABLED) {
+                register(created, DOMAIN + ":type=QueryStats,name=" + ObjectName.quote(name));
+            }
+            return created;
+        });
+    }
+
+    /**
+     * Number of statements that have failed on the calling thread. Model methods report a failed
+     * query as an empty result, so a caller that must tell the two apart, such as a load test,
+     * compares this before and after the call.
+     */
+    public static long getThreadErrors() {
+        return threadErrors.get()[0];
+    }
+
+    static void countThreadError() {
+        threadErrors.get()[0]++;
+    }
+
+    // Statistics of an operation, or null if it has not run yet
+    public static QueryStats get(String operation) {
+        return byOperation.get(operation);
+    }
+
+    public static List<QueryStats> all() {
+        List<QueryStats> all = new ArrayList<>(byOperation.values());
+        all.sort(Comparator.comparing(QueryStats::getOperation));
+        return all;
+    }
+
+    /**
+     * Write all statistics in the Prometheus text exposition format.
+     */
+    public static void writeText(Appendable out) throws IOException {
+        List<QueryStats> all = all();
+        out.append("# TYPE jobportal_query_calls_total counter\n");
+        for (QueryStats stats : all) {
+            line(out, "jobportal_query_calls_total", stats, null, stats.getCalls());
+        }
+        out.append("# TYPE jobportal_query_errors_total counter\n");
+        for (QueryStats stats : all) {
+            line(out, "jobportal_query_errors_total", stats, null, stats.getErrors());
+        }
+        out.append("# TYPE jobportal_query_rows_total counter\n");
+        for (QueryStats stats : all) {
+            line(out, "jobportal_query_rows_total", stats, null, stats.getRows());
+        }
+        out.append("# TYPE jobportal_query_latency_seconds summary\n");
+        for (QueryStats stats : all) {
+            LatencyHistogram latency = stats.getLatency();
+            line(out, "jobportal_query_latency_seconds", stats, "0.5", latency.getPercentileNanos(50) / 1e9);
+            line(out, "jobportal_query_latency_seconds", stats, "0.99", latency.getPercentileNanos(99) / 1e9);
+            line(out, "jobportal_query_latency_seconds", stats, "0.999", latency.getPercentileNanos(99.9) / 1e9);
+            line(out, "jobportal_query_latency_seconds_count", stats, null, latency.getCount());
+            line(out, "jobportal_query_latency_seconds_sum", stats, null,
+                    latency.getMeanNanos() * latency.getCount() / 1e9);
+        }
+        out.append("# TYPE jobportal_query_latency_max_seconds gauge\n");
+        for (QueryStats stats : all) {
+            line(out, "jobportal_query_latency_max_seconds", stats, null, stats.getLatency().getMaxNanos() / 1e9);
+        }
+    }
+
+    public static String text() {
+        StringBuilder out = new StringBuilder();
+        try {
+            writeText(out);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+        }
+        return out.toString();
+    }
+
+    public static void reset() {
+        for (QueryStats stats : byOperation.values()) {
+            stats.reset();
+        }
+    }
+
+    private static void line(Appendable out, String metric, QueryStats stats, String quantile, double value)
+            throws IOException {
+        out.append(metric).append("{operation=\"").append(stats.getOperation()).append('"');
+        if (quantile != null) {
+            out.append(",quantile=\"").append(quantile).append('"');
+        }
+        out.append("} ");
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append(Long.toString((long) value));
+        } else {
+            out.append(String.format(Locale.ROOT, "%.9f", value));
+        }
+        out.append('\n');
+    }
+
+    /**
+     * The current operation: the first frame outside the JDK, the pool and the shared query
+     * helpers, as "Class.method". Walks the stack, so callers look it up once per statement.
+     */
+    public static String callingOperation() {
+        return walker.walk(frames -> frames
+                .filter(frame -> !isPlumbing(frame.getClassName()))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + methodName(frame.getMethodName()))
+                .orElse("unknown"));
+    }
+
+    private static boolean isPlumbing(String className) {
+        return className.startsWith("java.")
+                || className.startsWith("jdk.")
+                || className.startsWith("sun.")
+                || className.startsWith("com.sun.")
+                || className.startsWith("jobportal.metrics.")
+                || className.startsWith("jobportal.ConnectionPool")
+                || className.startsWith("jobportal.StatementCache")
+                || className.startsWith("jobportal.InstrumentedStatement")
+                || className.startsWith("jobportal.model.QueryStream")
+                || className.startsWith("jobportal.model.BatchInsert")
+                || className.startsWith("jobportal.model.PageCursor")
+                || className.startsWith("jobportal.model.InClause");
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    // "lambda$findAll$0" -> "findAll"
+    private static String methodName(String method) {
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', 7);
+            return end > 7 ? method.substring(7, end) : method;
+        }
+        return method;
+    }
+
+    private static void register(Object mbean, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Error registering MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    // JMX view
+    @Override
+    public int getOperationCount() {
+        return byOperation.size();
+    }
+
+    @Override
+    public String dump() {
+        return text();
+    }
+
+    @Override
+    public void resetAll() {
+        reset();
+    }
+}
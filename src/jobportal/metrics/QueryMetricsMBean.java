@@ -0,0 +1,13 @@
+package jobportal.metrics;
+
+/**
+ * JMX view of all query statistics.
+ */
+public interface QueryMetricsMBean {
+    int getOperationCount();
+
+    // All statistics in the text format of QueryMetrics.writeText
+    String dump();
+
+    void resetAll();
+}
@@ -0,0 +1,82 @@
+package jobportal.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call, error and row counters and a latency histogram for one model operation.
+ * All updates are lock-free.
+ */
+public final class QueryStats implements QueryStatsMBean {
+    private final String operation;
+    private final String sql;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    QueryStats(String operation, String sql) {
+        this.operation = operation;
+        this.sql = sql;
+    }
+
+    /**
+     * Record one statement execution.
+     *
+     * @param nanos Time spent executing
+     * @param failed Whether it threw
+     */
+    public void recordExecution(long nanos, boolean failed) {
+        calls.increment();
+        latency.record(nanos);
+        if (failed) {
+            errors.increment();
+            QueryMetrics.countThreadError();
+        }
+    }
+
+    public void recordRows(long count) {
+        if (count > 0) {
+            rows.add(count);
+        }
+    }
+
+    public LatencyHistogram getLatency() { return latency; }
+
+    @Override
+    public String getOperation() { return operation; }
+
+    @Override
+    public String getSql() { return sql; }
+
+    @Override
+    public long getCalls() { return calls.sum(); }
+
+    @Override
+    public long getErrors() { return errors.sum(); }
+
+    @Override
+    public long getRows() { return rows.sum(); }
+
+    @Override
+    public double getMeanMillis() { return latency.getMeanNanos() / 1e6; }
+
+    @Override
+    public double getP50Millis() { return latency.getPercentileNanos(50) / 1e6; }
+
+    @Override
+    public double getP99Millis() { return latency.getPercentileNanos(99) / 1e6; }
+
+    @Override
+    public double getP999Millis() { return latency.getPercentileNanos(99.9) / 1e6; }
+
+    @Override
+    public double getMaxMillis() { return latency.getMaxNanos() / 1e6; }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        rows.reset();
+        latency.reset();
+    }
+}
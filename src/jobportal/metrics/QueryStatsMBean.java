@@ -0,0 +1,30 @@
+package jobportal.metrics;
+
+/**
+ * JMX view of the statistics of one model operation, e.g. {@code JobPosting.searchByLocation}.
+ */
+public interface QueryStatsMBean {
+    String getOperation();
+
+    // The SQL of the first statement seen for this operation
+    String getSql();
+
+    long getCalls();
+
+    long getErrors();
+
+    // Rows read from result sets or changed by updates
+    long getRows();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    void reset();
+}
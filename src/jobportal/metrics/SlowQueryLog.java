@@ -0,0 +1,203 @@
+package jobportal.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Log of individual statements that took longer than a threshold.
+ * <p>
+ * Each entry records the calling model operation, the SQL, the bound parameters, the execution
+ * time, the time spent fetching rows, the total time until the results were read and the row
+ * count. The threshold applies to execution plus fetch time, the time spent in the driver, so a
+ * caller that does slow work between rows does not make a fast query look slow. Entries are handed to a
+ * background writer through a lock-free ring buffer, so the query path never waits on I/O; if the
+ * writer falls behind, entries are dropped and counted rather than slowing queries down.
+ * <p>
+ * String parameters are redacted to their length by default, since they include passwords and
+ * e-mail addresses. Settings: {@code -Djobportal.slowlog.thresholdMillis} (default 500, negative
+ * disables), {@code .file} (default standard error), {@code .bufferSize} (default 8192) and
+ * {@code .showStrings} (default false).
+ */
+public final class SlowQueryLog {
+    private static final long THRESHOLD_MILLIS = Long.getLong("jobportal.slowlog.thresholdMillis", 500L);
+    public static final boolean ENABLED = THRESHOLD_MILLIS >= 0;
+    public static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(0, THRESHOLD_MILLIS));
+
+    private static final boolean SHOW_STRINGS = Boolean.getBoolean("jobportal.slowlog.showStrings");
+    private static final int MAX_VALUE_LENGTH = 64;
+    private static final int MAX_SQL_LENGTH = 2_000;
+
+    // Bound value of a parameter set to SQL NULL; unset parameters are plain nulls
+    public static final Object SQL_NULL = new Object();
+
+    private static final RingBuffer<Entry> buffer =
+            new RingBuffer<>(Integer.getInteger("jobportal.slowlog.bufferSize", 8_192));
+    private static final LongAdder logged = new LongAdder();
+    private static final LongAdder dropped = new LongAdder();
+    private static volatile Thread writer;
+
+    private SlowQueryLog() {
+    }
+
+    private static final class Entry {
+        private final long timestampMillis = System.currentTimeMillis();
+        private final String operation;
+        private final String sql;
+        private final Object[] binds;
+        private final long executeNanos;
+        private final long fetchNanos;
+        private final long totalNanos;
+        private final long rows;
+        private final boolean failed;
+
+        private Entry(String operation, String sql, Object[] binds, long executeNanos, long fetchNanos,
+                      long totalNanos, long rows, boolean failed) {
+            this.operation = operation;
+            this.sql = sql;
+            this.binds = binds;
+            this.executeNanos = executeNanos;
+            this.fetchNanos = fetchNanos;
+            this.totalNanos = totalNanos;
+            this.rows = rows;
+            this.failed = failed;
+        }
+    }
+
+    /**
+     * Log a statement if it reached the threshold. Never blocks.
+     *
+     * @param binds Parameter values by 1-based index (slot 0 unused, SQL_NULL for NULL), or null;
+     *              must not be modified afterwards
+     * @param fetchNanos Time spent in the driver reading the results after execution
+     * @param totalNanos Time from execution until the results were read, including the caller's work
+     * @param rows Rows returned or changed, or -1 if unknown
+     */
+    public static void record(String operation, String sql, Object[] binds, long executeNanos, long fetchNanos,
+                              long totalNanos, long rows, boolean failed) {
+        if (!ENABLED || executeNanos + fetchNanos < THRESHOLD_NANOS) {
+            return;
+        }
+        startWriter();
+        if (buffer.offer(new Entry(operation, sql, binds, executeNanos, fetchNanos, totalNanos, rows, failed))) {
+            logged.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    public static long getLoggedCount() { return logged.sum(); }
+
+    // Entries lost because the writer could not keep up
+    public static long getDroppedCount() { return dropped.sum(); }
+
+    private static void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        synchronized (SlowQueryLog.class) {
+            if (writer == null) {
+                Thread thread = new Thread(SlowQueryLog::drain, "jobportal-slowlog");
+                thread.setDaemon(true);
+                thread.start();
+                writer = thread;
+            }
+        }
+    }
+
+    private static void drain() {
+        Writer out = openOutput();
+        StringBuilder line = new StringBuilder(512);
+        long reportedDrops = 0;
+        while (true) {
+            Entry entry = buffer.poll();
+            try {
+                if (entry == null) {
+                    out.flush();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                    continue;
+                }
+                long drops = dropped.sum();
+                if (drops != reportedDrops) {
+                    out.write("slow-query log dropped " + (drops - reportedDrops) + " entries\n");
+                    reportedDrops = drops;
+                }
+                line.setLength(0);
+                format(entry, line);
+                out.write(line.append('\n').toString());
+            } catch (IOException e) {
+                System.err.println("Error writing slow-query log: " + e.getMessage());
+            }
+        }
+    }
+
+    private static Writer openOutput() {
+        String file = System.getProperty("jobportal.slowlog.file");
+        if (file != null) {
+            try {
+                return Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Error opening slow-query log " + file + ": " + e.getMessage());
+            }
+        }
+        return new BufferedWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8));
+    }
+
+    // 2026-01-01T12:00:00.123Z SLOW 812.4 ms (execute 790.1 ms, fetch 22.3 ms, read in 950.2 ms) rows=42
+    //     op=JobPosting.searchByLocation sql="..." binds=[...]
+    private static void format(Entry entry, StringBuilder line) {
+        line.append(Instant.ofEpochMilli(entry.timestampMillis))
+                .append(entry.failed ? " SLOW FAILED " : " SLOW ")
+                .append(String.format(Locale.ROOT, "%.1f ms (execute %.1f ms, fetch %.1f ms, read in %.1f ms)",
+                        (entry.executeNanos + entry.fetchNanos) / 1e6, entry.executeNanos / 1e6,
+                        entry.fetchNanos / 1e6, entry.totalNanos / 1e6))
+                .append(" rows=").append(entry.rows >= 0 ? Long.toString(entry.rows) : "?")
+                .append(" op=").append(entry.operation)
+                .append(" sql=\"");
+        String sql = entry.sql.replaceAll("\\s+", " ");
+        line.append(sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql).append('"');
+
+        line.append(" binds=[");
+        if (entry.binds != null) {
+            boolean first = true;
+            for (int i = 1; i < entry.binds.length; i++) {
+                Object value = entry.binds[i];
+                if (value == null) {
+                    continue;
+                }
+                if (!first) line.append(", ");
+                first = false;
+                line.append(i).append(':');
+                appendValue(line, value);
+            }
+        }
+        line.append(']');
+    }
+
+    private static void appendValue(StringBuilder line, Object value) {
+        if (value == SQL_NULL) {
+            line.append("NULL");
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof java.util.Date) {
+            line.append(value);
+        } else if (value instanceof String && SHOW_STRINGS) {
+            String text = (String) value;
+            line.append('\'').append(text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text)
+                    .append('\'');
+        } else if (value instanceof String) {
+            line.append("<string, ").append(((String) value).length()).append(" chars>");
+        } else {
+            line.append('<').append(value.getClass().getSimpleName()).append('>');
+        }
+    }
+}
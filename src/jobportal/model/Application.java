@@ -2,16 +2,40 @@ package jobportal.model;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import jobportal.DBConnection;
+import jobportal.cache.BloomFilter;
 
 public class Application {
+    // Probabilistic set of the (user_id, job_id) pairs this process knows to have applied, so exists() can
+    // rule a pair out without a query. Built by loadAppliedFilter() and added to by save/saveAll/update;
+    // deleted pairs stay in it and only cost a query. Sized with -Djobportal.cache.applied.expected and
+    // -Djobportal.cache.applied.falsePositiveRate; a failed load is retried after -Djobportal.cache.applied.retryMillis
+    private static final KeyFilter appliedFilter = new KeyFilter("applied filter",
+            Long.getLong("jobportal.cache.applied.expected", 1_000_000L),
+            Double.parseDouble(System.getProperty("jobportal.cache.applied.falsePositiveRate", "0.01")),
+            Long.getLong("jobportal.cache.applied.retryMillis", 30_000L),
+            Application::scanApplied);
+
     private int applicationId;
     private int jobId;
     private int userId;
     private Date applicationDate;
     private String status;
 
+    // Columns read by ROW_MAPPER, in the order it reads them by index
+    static final String COLUMNS = "application_id, job_id, user_id, application_date, status";
+    // Maps a row selected with COLUMNS, reading by position so there are no per-row label lookups
+    static final RowMapper<Application> ROW_MAPPER = rs -> new Application(
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getInt(3),
+            rs.getDate(4),
+            rs.getString(5)
+    );
+
     // Constructor for new application
     public Application(int jobId, int userId, Date applicationDate, String status) {
         this.jobId = jobId;
@@ -42,14 +66,44 @@ public class Application {
     public Date getApplicationDate() { return applicationDate; }
     public void setApplicationDate(Date applicationDate) { this.applicationDate = applicationDate; }
 
+    // Set by the constructor for a new application; a stored one changes status only through updateStatus()
+    // or transitionStatus(), so there is no setter for update() to silently ignore
     public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
 
     // Database operations
     // Create a new application
     public boolean save() {
+        try {
+            return insert();
+        } catch (SQLException e) {
+            System.err.println("Error saving application: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // Create the application unless the user has already applied for this job. The unique (user_id, job_id)
+    // key makes the insert itself the duplicate check, so concurrent submissions cannot both succeed;
+    // exists() is only queried first when the applied filter cannot rule the pair out.
+    public SaveResult saveIfAbsent() {
+        if (exists(userId, jobId)) {
+            return SaveResult.DUPLICATE;
+        }
+        try {
+            return insert() ? SaveResult.SAVED : SaveResult.FAILED;
+        } catch (SQLException e) {
+            if (SqlErrors.isDuplicateKey(e)) {
+                rememberApplied(userId, jobId);
+                return SaveResult.DUPLICATE;
+            }
+            System.err.println("Error saving application: " + e.getMessage());
+        }
+        return SaveResult.FAILED;
+    }
+
+    private boolean insert() throws SQLException {
         String sql = "INSERT INTO Applications (job_id, user_id, application_date, status) VALUES (?, ?, ?, ?)";
 
+        int rowsAffected;
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -58,42 +112,141 @@ public class Application {
             stmt.setDate(3, applicationDate);
             stmt.setString(4, status);
 
-            int rowsAffected = stmt.executeUpdate();
+            rowsAffected = stmt.executeUpdate();
             if (rowsAffected > 0) {
                 // Get the auto-generated ID
                 ResultSet rs = stmt.getGeneratedKeys();
                 if (rs.next()) {
                     this.applicationId = rs.getInt(1);
                 }
-                return true;
             }
-        } catch (SQLException e) {
-            System.err.println("Error saving application: " + e.getMessage());
         }
-        return false;
+        if (rowsAffected > 0) {
+            rememberApplied(userId, jobId);
+        }
+        return rowsAffected > 0;
+    }
+
+    // Insert many applications with JDBC batches, one transaction per chunk, filling in their generated IDs.
+    // Returns the number saved; on failure the remaining applications are left unsaved.
+    public static int saveAll(Collection<Application> applications) {
+        return saveAll(applications, BatchInsert.DEFAULT_CHUNK_SIZE);
     }
 
-    // Update existing application
+    public static int saveAll(Collection<Application> applications, int chunkSize) {
+        String sql = "INSERT INTO Applications (job_id, user_id, application_date, status) VALUES (?, ?, ?, ?)";
+
+        return BatchInsert.execute(sql, applications, chunkSize,
+                (stmt, application) -> {
+                    stmt.setInt(1, application.jobId);
+                    stmt.setInt(2, application.userId);
+                    stmt.setDate(3, application.applicationDate);
+                    stmt.setString(4, application.status);
+                },
+                (application, id) -> {
+                    application.applicationId = id;
+                    rememberApplied(application.userId, application.jobId);
+                },
+                "applications");
+    }
+
+    // Update existing application. The status is left alone so it only moves through the state machine;
+    // use updateStatus() for that
     public boolean update() {
-        String sql = "UPDATE Applications SET job_id = ?, user_id = ?, application_date = ?, status = ? WHERE application_id = ?";
+        String sql = "UPDATE Applications SET job_id = ?, user_id = ?, application_date = ? WHERE application_id = ?";
 
+        int rowsAffected = 0;
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, jobId);
             stmt.setInt(2, userId);
             stmt.setDate(3, applicationDate);
-            stmt.setString(4, status);
-            stmt.setInt(5, applicationId);
+            stmt.setInt(4, applicationId);
 
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+            rowsAffected = stmt.executeUpdate();
         } catch (SQLException e) {
             System.err.println("Error updating application: " + e.getMessage());
         }
+        if (rowsAffected > 0) {
+            rememberApplied(userId, jobId);
+        }
+        return rowsAffected > 0;
+    }
+
+    // Move this application to a new status, writing only the status column. Fails if the state machine does
+    // not allow the change or another writer changed the status since this object was loaded.
+    public boolean updateStatus(ApplicationStatus target) {
+        ApplicationStatus current = ApplicationStatus.fromLabel(status);
+        if (current == null || !current.canTransitionTo(target)) {
+            System.err.println("Error updating application status: cannot move from " + status + " to " + target);
+            return false;
+        }
+        String sql = "UPDATE Applications SET status = ? WHERE application_id = ? AND status = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, target.getLabel());
+            stmt.setInt(2, applicationId);
+            stmt.setString(3, status);
+
+            if (stmt.executeUpdate() > 0) {
+                this.status = target.getLabel();
+                return true;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating application status: " + e.getMessage());
+        }
         return false;
     }
 
+    // Move every application for a job from one status to another in one transaction, e.g. reject all
+    // pending applications when a job closes. The matching rows are locked and their IDs read, then changed
+    // with a single set-based UPDATE, so the IDs returned are exactly the rows changed.
+    // Returns an empty list if none matched; throws if the transaction failed, in which case nothing changed.
+    public static List<Integer> transitionStatus(int jobId, ApplicationStatus from, ApplicationStatus to)
+            throws SQLException {
+        if (!from.canTransitionTo(to)) {
+            throw new IllegalArgumentException("Applications cannot move from " + from + " to " + to);
+        }
+        List<Integer> applicationIds = new ArrayList<>();
+        String selectSql = "SELECT application_id FROM Applications WHERE job_id = ? AND status = ? FOR UPDATE";
+        String updateSql = "UPDATE Applications SET status = ? WHERE job_id = ? AND status = ?";
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement select = conn.prepareStatement(selectSql);
+                 PreparedStatement update = conn.prepareStatement(updateSql)) {
+
+                select.setInt(1, jobId);
+                select.setString(2, from.getLabel());
+                ResultSet rs = select.executeQuery();
+                while (rs.next()) {
+                    applicationIds.add(rs.getInt(1));
+                }
+                if (applicationIds.isEmpty()) {
+                    conn.rollback();
+                    return applicationIds;
+                }
+
+                update.setString(1, to.getLabel());
+                update.setInt(2, jobId);
+                update.setString(3, from.getLabel());
+                int rowsAffected = update.executeUpdate();
+                if (rowsAffected != applicationIds.size()) {
+                    throw new SQLException("expected to update " + applicationIds.size() + " rows but updated " + rowsAffected);
+                }
+                conn.commit();
+                return applicationIds;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new SQLException("Error moving applications for job " + jobId + " from " + from + " to " + to
+                        + ": " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+            }
+        }
+    }
+
     // Delete application
     public boolean delete() {
         String sql = "DELETE FROM Applications WHERE application_id = ?";
@@ -113,7 +266,7 @@ public class Application {
 
     // Find application by ID
     public static Application findById(int applicationId) {
-        String sql = "SELECT * FROM Applications WHERE application_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Applications WHERE application_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -122,13 +275,7 @@ public class Application {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new Application(
-                        rs.getInt("application_id"),
-                        rs.getInt("job_id"),
-                        rs.getInt("user_id"),
-                        rs.getDate("application_date"),
-                        rs.getString("status")
-                );
+                return ROW_MAPPER.mapRow(rs);
             }
         } catch (SQLException e) {
             System.err.println("Error finding application: " + e.getMessage());
@@ -139,7 +286,7 @@ public class Application {
     // Find applications by job ID
     public static List<Application> findByJobId(int jobId) {
         List<Application> applications = new ArrayList<>();
-        String sql = "SELECT * FROM Applications WHERE job_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Applications WHERE job_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -148,13 +295,7 @@ public class Application {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                applications.add(new Application(
-                        rs.getInt("application_id"),
-                        rs.getInt("job_id"),
-                        rs.getInt("user_id"),
-                        rs.getDate("application_date"),
-                        rs.getString("status")
-                ));
+                applications.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error finding applications by job ID: " + e.getMessage());
@@ -165,7 +306,7 @@ public class Application {
     // Find applications by user ID
     public static List<Application> findByUserId(int userId) {
         List<Application> applications = new ArrayList<>();
-        String sql = "SELECT * FROM Applications WHERE user_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Applications WHERE user_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -174,13 +315,7 @@ public class Application {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                applications.add(new Application(
-                        rs.getInt("application_id"),
-                        rs.getInt("job_id"),
-                        rs.getInt("user_id"),
-                        rs.getDate("application_date"),
-                        rs.getString("status")
-                ));
+                applications.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error finding applications by user ID: " + e.getMessage());
@@ -188,23 +323,40 @@ public class Application {
         return applications;
     }
 
+    // Whether the user has applied for the job. Pairs the applied filter rules out are answered without a
+    // query; applications inserted by other processes since the filter was loaded are only caught by the
+    // unique key, so use saveIfAbsent() rather than checking first.
+    public static boolean exists(int userId, int jobId) {
+        BloomFilter filter = appliedFilter.get();
+        if (filter != null && !filter.mightContain(appliedKey(userId, jobId))) {
+            return false;
+        }
+        String sql = "SELECT 1 FROM Applications WHERE user_id = ? AND job_id = ? LIMIT 1";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            stmt.setInt(2, jobId);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next();
+        } catch (SQLException e) {
+            System.err.println("Error checking for application: " + e.getMessage());
+        }
+        return false;
+    }
+
     // Get all applications
     public static List<Application> findAll() {
         List<Application> applications = new ArrayList<>();
-        String sql = "SELECT * FROM Applications";
+        String sql = "SELECT " + COLUMNS + " FROM Applications";
 
         try (Connection conn = DBConnection.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                applications.add(new Application(
-                        rs.getInt("application_id"),
-                        rs.getInt("job_id"),
-                        rs.getInt("user_id"),
-                        rs.getDate("application_date"),
-                        rs.getString("status")
-                ));
+                applications.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving applications: " + e.getMessage());
@@ -212,6 +364,71 @@ public class Application {
         return applications;
     }
 
+    // Stream all applications without loading them into memory; close the stream when done
+    public static Stream<Application> streamAll() {
+        return streamAll(QueryStream.DEFAULT_FETCH_SIZE);
+    }
+
+    // Stream all applications, fetching fetchSize rows per round trip
+    public static Stream<Application> streamAll(int fetchSize) {
+        String sql = "SELECT " + COLUMNS + " FROM Applications";
+        return QueryStream.of(sql, stmt -> { }, ROW_MAPPER, fetchSize);
+    }
+
+    // Get one page of applications in application_id order; pass null for the first page
+    public static Page<Application> findPage(String cursor, int pageSize) {
+        List<Application> applications = new ArrayList<>();
+        int size = PageCursor.clampPageSize(pageSize);
+        String sql = "SELECT " + COLUMNS + " FROM Applications WHERE application_id > ? ORDER BY application_id LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, PageCursor.decodeId(cursor));
+            stmt.setInt(2, size + 1);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                applications.add(ROW_MAPPER.mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving page of applications: " + e.getMessage());
+        }
+        return PageCursor.toPage(applications, size, item -> PageCursor.encode(item.getApplicationId()));
+    }
+
+    // Build the applied filter from all applications, replacing any existing filter. The table is scanned
+    // without blocking writers, which add their pairs to both the old and the new filter meanwhile.
+    public static boolean loadAppliedFilter() {
+        return appliedFilter.load();
+    }
+
+    // Get the applied filter, loading it on first use; null while it is loading or could not be loaded
+    public static BloomFilter getAppliedFilter() {
+        return appliedFilter.get();
+    }
+
+    private static void scanApplied(BloomFilter filter) throws SQLException {
+        String sql = "SELECT user_id, job_id FROM Applications";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                filter.add(appliedKey(rs.getInt(1), rs.getInt(2)));
+            }
+        }
+    }
+
+    private static void rememberApplied(int userId, int jobId) {
+        appliedFilter.add(appliedKey(userId, jobId));
+    }
+
+    private static long appliedKey(int userId, int jobId) {
+        return ((long) userId << 32) | (jobId & 0xFFFFFFFFL);
+    }
+
     // Get job for this application
     public JobPosting getJob() {
         return JobPosting.findById(this.jobId);
@@ -0,0 +1,62 @@
+package jobportal.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The statuses an application moves through, stored in the status column by label,
+ * and the transitions allowed between them. Accepted and Rejected are final.
+ */
+public enum ApplicationStatus {
+    PENDING("Pending"),
+    REVIEWED("Reviewed"),
+    INTERVIEW("Interview"),
+    ACCEPTED("Accepted"),
+    REJECTED("Rejected");
+
+    static {
+        PENDING.next = EnumSet.of(REVIEWED, INTERVIEW, REJECTED);
+        REVIEWED.next = EnumSet.of(INTERVIEW, ACCEPTED, REJECTED);
+        INTERVIEW.next = EnumSet.of(ACCEPTED, REJECTED);
+        ACCEPTED.next = EnumSet.noneOf(ApplicationStatus.class);
+        REJECTED.next = EnumSet.noneOf(ApplicationStatus.class);
+    }
+
+    private final String label;
+    private Set<ApplicationStatus> next;
+
+    ApplicationStatus(String label) {
+        this.label = label;
+    }
+
+    // The value stored in Applications.status
+    public String getLabel() { return label; }
+
+    public boolean canTransitionTo(ApplicationStatus target) {
+        return next.contains(target);
+    }
+
+    public Set<ApplicationStatus> getAllowedTransitions() {
+        return Collections.unmodifiableSet(next);
+    }
+
+    public boolean isFinal() {
+        return next.isEmpty();
+    }
+
+    // The status with this label, ignoring case; null if there is none
+    public static ApplicationStatus fromLabel(String label) {
+        for (ApplicationStatus status : values()) {
+            if (status.label.equalsIgnoreCase(label)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
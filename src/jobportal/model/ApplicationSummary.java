@@ -0,0 +1,113 @@
+package jobportal.model;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import jobportal.DBConnection;
+
+// Read-only view of a user's application with its job and interview, for the user dashboard
+public class ApplicationSummary {
+    private final int applicationId;
+    private final int jobId;
+    private final String jobTitle;
+    private final String companyName;
+    private final Date applicationDate;
+    private final String status;
+    private final int interviewId;
+    private final Date interviewDate;
+    private final String interviewStatus;
+
+    public ApplicationSummary(int applicationId, int jobId, String jobTitle, String companyName, Date applicationDate,
+                              String status, int interviewId, Date interviewDate, String interviewStatus) {
+        this.applicationId = applicationId;
+        this.jobId = jobId;
+        this.jobTitle = jobTitle;
+        this.companyName = companyName;
+        this.applicationDate = applicationDate;
+        this.status = status;
+        this.interviewId = interviewId;
+        this.interviewDate = interviewDate;
+        this.interviewStatus = interviewStatus;
+    }
+
+    // Getters
+    public int getApplicationId() { return applicationId; }
+
+    public int getJobId() { return jobId; }
+
+    // Null when the job posting no longer exists
+    public String getJobTitle() { return jobTitle; }
+
+    public String getCompanyName() { return companyName; }
+
+    public Date getApplicationDate() { return applicationDate; }
+
+    public String getStatus() { return status; }
+
+    public boolean hasInterview() { return interviewId != 0; }
+
+    // Interview fields are 0/null when no interview has been scheduled
+    public int getInterviewId() { return interviewId; }
+
+    public Date getInterviewDate() { return interviewDate; }
+
+    public String getInterviewStatus() { return interviewStatus; }
+
+    // Database operations
+    // Find the applications of a user together with their jobs and interviews in one query
+    public static List<ApplicationSummary> findByUserId(int userId) {
+        List<ApplicationSummary> summaries = new ArrayList<>();
+        String sql = "SELECT a.application_id, a.job_id, j.title, c.name AS company_name, a.application_date, a.status, " +
+                "i.interview_id, i.scheduled_date, i.status AS interview_status " +
+                "FROM Applications a " +
+                "LEFT JOIN Job_Postings j ON j.job_id = a.job_id " +
+                "LEFT JOIN Companies c ON c.company_id = j.company_id " +
+                "LEFT JOIN Interviews i ON i.application_id = a.application_id " +
+                "WHERE a.user_id = ? " +
+                "ORDER BY a.application_id, i.interview_id";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            int previousApplicationId = 0;
+            while (rs.next()) {
+                int applicationId = rs.getInt(1);
+                // Columns are read by position, in select-list order
+                // Keep the first interview of each application, like Application.getInterview()
+                if (applicationId == previousApplicationId) {
+                    continue;
+                }
+                previousApplicationId = applicationId;
+
+                summaries.add(new ApplicationSummary(
+                        applicationId,
+                        rs.getInt(2),
+                        rs.getString(3),
+                        rs.getString(4),
+                        rs.getDate(5),
+                        rs.getString(6),
+                        rs.getInt(7),
+                        rs.getDate(8),
+                        rs.getString(9)
+                ));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding application summaries by user ID: " + e.getMessage());
+        }
+        return summaries;
+    }
+
+    @Override
+    public String toString() {
+        return "ApplicationSummary{" +
+                "applicationId=" + applicationId +
+                ", jobTitle='" + jobTitle + '\'' +
+                ", status='" + status + '\'' +
+                ", interviewId=" + interviewId +
+                ", interviewStatus='" + interviewStatus + '\'' +
+                '}';
+    }
+}
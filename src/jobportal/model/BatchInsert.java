@@ -0,0 +1,97 @@
+package jobportal.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import jobportal.DBConnection;
+
+// Shared implementation of the saveAll methods.
+// Rows are sent as JDBC batches (which the driver rewrites into multi-row INSERTs),
+// one transaction per chunk, and the generated keys are copied back onto the objects.
+final class BatchInsert {
+    // Rows per chunk, overridable with -Djobportal.batch.chunkSize
+    static final int DEFAULT_CHUNK_SIZE = Integer.getInteger("jobportal.batch.chunkSize", 1_000);
+
+    // Binds one object to the INSERT's parameters
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    // Stores a generated ID on an object
+    @FunctionalInterface
+    interface IdSetter<T> {
+        void setId(T item, int id);
+    }
+
+    private BatchInsert() {
+    }
+
+    // Insert all items, stopping at the first chunk that fails.
+    // Returns the number of rows committed; those are the first items in iteration order.
+    static <T> int execute(String sql, Collection<T> items, int chunkSize, Binder<T> binder, IdSetter<T> idSetter,
+                           String label) {
+        int size = chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE;
+        int saved = 0;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            conn.setAutoCommit(false);
+            List<T> chunk = new ArrayList<>(Math.min(size, items.size()));
+            for (T item : items) {
+                chunk.add(item);
+                if (chunk.size() == size) {
+                    saved += insertChunk(conn, stmt, chunk, binder, idSetter);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                saved += insertChunk(conn, stmt, chunk, binder, idSetter);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving " + label + " in batch (" + saved + " saved): " + e.getMessage());
+        }
+        return saved;
+    }
+
+    private static <T> int insertChunk(Connection conn, PreparedStatement stmt, List<T> chunk, Binder<T> binder,
+                                       IdSetter<T> idSetter) throws SQLException {
+        int[] ids = new int[chunk.size()];
+        try {
+            for (T item : chunk) {
+                binder.bind(stmt, item);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+
+            // Keys come back in insertion order
+            int keys = 0;
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                while (keys < ids.length && rs.next()) {
+                    ids[keys++] = rs.getInt(1);
+                }
+            }
+            // Every object must get its ID, so a driver returning fewer keys fails the chunk rather than leaving 0s
+            if (keys != ids.length) {
+                throw new SQLException("Expected " + ids.length + " generated keys but got " + keys);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            stmt.clearBatch();
+            conn.rollback();
+            throw e;
+        }
+
+        // Only hand out IDs once the rows are committed
+        for (int i = 0; i < ids.length; i++) {
+            idSetter.setId(chunk.get(i), ids[i]);
+        }
+        return chunk.size();
+    }
+}
@@ -2,10 +2,31 @@ package jobportal.model;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import jobportal.DBConnection;
+import jobportal.cache.BoundedCache;
+import jobportal.cache.CacheStats;
 
 public class Company {
+    // Read-through caches in front of findById/findByName, invalidated by save/update/delete. A lookup that
+    // raced with one of those writes returns what it read but does not cache it.
+    // Sized with -Djobportal.cache.company.maxSize and -Djobportal.cache.company.ttlMillis
+    private static final int CACHE_MAX_SIZE = Integer.getInteger("jobportal.cache.company.maxSize", 1_000);
+    private static final long CACHE_TTL_MILLIS = Long.getLong("jobportal.cache.company.ttlMillis", 600_000L);
+    private static final BoundedCache<Integer, Company> cacheById = new BoundedCache<>(CACHE_MAX_SIZE, CACHE_TTL_MILLIS);
+    private static final BoundedCache<String, Integer> idCacheByName = new BoundedCache<>(CACHE_MAX_SIZE, CACHE_TTL_MILLIS);
+
+    // Columns read by ROW_MAPPER, in the order it reads them by index
+    static final String COLUMNS = "company_id, name, location, industry";
+    // Maps a row selected with COLUMNS, reading by position so there are no per-row label lookups
+    static final RowMapper<Company> ROW_MAPPER = rs -> new Company(
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4)
+    );
+
     private int companyId;
     private String name;
     private String location;
@@ -39,6 +60,16 @@ public class Company {
     public String getIndustry() { return industry; }
     public void setIndustry(String industry) { this.industry = industry; }
 
+    // Cache statistics
+    public static CacheStats getCacheStats() { return cacheById.stats(); }
+
+    public static CacheStats getNameCacheStats() { return idCacheByName.stats(); }
+
+    public static void clearCache() {
+        cacheById.invalidateAll();
+        idCacheByName.invalidateAll();
+    }
+
     // Database operations
     // Create a new company
     public boolean save() {
@@ -58,6 +89,7 @@ public class Company {
                 if (rs.next()) {
                     this.companyId = rs.getInt(1);
                 }
+                invalidateCache();
                 return true;
             }
         } catch (SQLException e) {
@@ -66,6 +98,35 @@ public class Company {
         return false;
     }
 
+    // Insert many companies with JDBC batches, one transaction per chunk, filling in their generated IDs.
+    // Returns the number saved; on failure the remaining companies are left unsaved.
+    public static int saveAll(Collection<Company> companies) {
+        return saveAll(companies, BatchInsert.DEFAULT_CHUNK_SIZE);
+    }
+
+    public static int saveAll(Collection<Company> companies, int chunkSize) {
+        String sql = "INSERT INTO Companies (name, location, industry) VALUES (?, ?, ?)";
+
+        int saved = BatchInsert.execute(sql, companies, chunkSize,
+                (stmt, company) -> {
+                    stmt.setString(1, company.name);
+                    stmt.setString(2, company.location);
+                    stmt.setString(3, company.industry);
+                },
+                (company, id) -> company.companyId = id,
+                "companies");
+
+        // The saved companies are the first ones in iteration order
+        int remaining = saved;
+        for (Company company : companies) {
+            if (remaining-- == 0) {
+                break;
+            }
+            company.invalidateCache();
+        }
+        return saved;
+    }
+
     // Update existing company
     public boolean update() {
         String sql = "UPDATE Companies SET name = ?, location = ?, industry = ? WHERE company_id = ?";
@@ -79,6 +140,7 @@ public class Company {
             stmt.setInt(4, companyId);
 
             int rowsAffected = stmt.executeUpdate();
+            invalidateCache();
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error updating company: " + e.getMessage());
@@ -96,6 +158,7 @@ public class Company {
             stmt.setInt(1, companyId);
 
             int rowsAffected = stmt.executeUpdate();
+            invalidateCache();
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error deleting company: " + e.getMessage());
@@ -105,7 +168,13 @@ public class Company {
 
     // Find company by ID
     public static Company findById(int companyId) {
-        String sql = "SELECT * FROM Companies WHERE company_id = ?";
+        Company cached = cacheById.get(companyId);
+        if (cached != null) {
+            return cached.copy();
+        }
+        long generation = cacheById.generation();
+
+        String sql = "SELECT " + COLUMNS + " FROM Companies WHERE company_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -114,12 +183,9 @@ public class Company {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new Company(
-                        rs.getInt("company_id"),
-                        rs.getString("name"),
-                        rs.getString("location"),
-                        rs.getString("industry")
-                );
+                Company company = ROW_MAPPER.mapRow(rs);
+                cache(company, generation);
+                return company.copy();
             }
         } catch (SQLException e) {
             System.err.println("Error finding company: " + e.getMessage());
@@ -129,7 +195,17 @@ public class Company {
 
     // Find company by name
     public static Company findByName(String name) {
-        String sql = "SELECT * FROM Companies WHERE name = ?";
+        Integer cachedId = idCacheByName.get(name);
+        if (cachedId != null) {
+            Company cached = cacheById.get(cachedId);
+            // The name mapping may be stale if the company was renamed or deleted since
+            if (cached != null && name.equals(cached.name)) {
+                return cached.copy();
+            }
+        }
+        long generation = cacheById.generation();
+
+        String sql = "SELECT " + COLUMNS + " FROM Companies WHERE name = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -138,12 +214,9 @@ public class Company {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new Company(
-                        rs.getInt("company_id"),
-                        rs.getString("name"),
-                        rs.getString("location"),
-                        rs.getString("industry")
-                );
+                Company company = ROW_MAPPER.mapRow(rs);
+                cache(company, generation);
+                return company.copy();
             }
         } catch (SQLException e) {
             System.err.println("Error finding company by name: " + e.getMessage());
@@ -154,19 +227,14 @@ public class Company {
     // Get all companies
     public static List<Company> findAll() {
         List<Company> companies = new ArrayList<>();
-        String sql = "SELECT * FROM Companies";
+        String sql = "SELECT " + COLUMNS + " FROM Companies";
 
         try (Connection conn = DBConnection.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                companies.add(new Company(
-                        rs.getInt("company_id"),
-                        rs.getString("name"),
-                        rs.getString("location"),
-                        rs.getString("industry")
-                ));
+                companies.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving companies: " + e.getMessage());
@@ -174,11 +242,52 @@ public class Company {
         return companies;
     }
 
+    // Get one page of companies in company_id order; pass null for the first page
+    public static Page<Company> findPage(String cursor, int pageSize) {
+        List<Company> companies = new ArrayList<>();
+        int size = PageCursor.clampPageSize(pageSize);
+        String sql = "SELECT " + COLUMNS + " FROM Companies WHERE company_id > ? ORDER BY company_id LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, PageCursor.decodeId(cursor));
+            stmt.setInt(2, size + 1);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                companies.add(ROW_MAPPER.mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving page of companies: " + e.getMessage());
+        }
+        return PageCursor.toPage(companies, size, item -> PageCursor.encode(item.getCompanyId()));
+    }
+
     // Get job postings by company
     public List<JobPosting> getJobPostings() {
         return JobPosting.findByCompanyId(this.companyId);
     }
 
+    // Cached instances are never handed out, so callers can't modify them through setters
+    private Company copy() {
+        return new Company(companyId, name, location, industry);
+    }
+
+    // Cache a company read after cacheById.generation() returned generation, unless a write invalidated it since
+    private static void cache(Company company, long generation) {
+        if (cacheById.putIfNotInvalidated(company.companyId, company, generation) && company.name != null) {
+            idCacheByName.put(company.name, company.companyId);
+        }
+    }
+
+    private void invalidateCache() {
+        cacheById.invalidate(companyId);
+        if (name != null) {
+            idCacheByName.invalidate(name);
+        }
+    }
+
     @Override
     public String toString() {
         return "Company{" +
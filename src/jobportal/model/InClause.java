@@ -0,0 +1,45 @@
+package jobportal.model;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// Helpers for "WHERE id IN (?, ?, ...)" lookups.
+// Id lists are split into chunks padded to a few fixed sizes, so only a handful of
+// distinct SQL strings exist and each one stays in the per-connection statement cache.
+class InClause {
+    private static final int[] CHUNK_SIZES = {1, 8, 32, 128, 512};
+    static final int MAX_CHUNK_SIZE = CHUNK_SIZES[CHUNK_SIZES.length - 1];
+
+    private InClause() {
+    }
+
+    // Smallest chunk size that fits the given number of ids
+    static int chunkSize(int remaining) {
+        for (int size : CHUNK_SIZES) {
+            if (remaining <= size) {
+                return size;
+            }
+        }
+        return MAX_CHUNK_SIZE;
+    }
+
+    // "?, ?, ?" with the given number of placeholders
+    static String placeholders(int size) {
+        StringBuilder sb = new StringBuilder(size * 3);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    // Bind ids[from, from + size) starting at parameter 1, repeating the last id as padding
+    static void bind(PreparedStatement stmt, int[] ids, int from, int size) throws SQLException {
+        int last = Math.min(from + size, ids.length) - 1;
+        for (int i = 0; i < size; i++) {
+            stmt.setInt(i + 1, ids[Math.min(from + i, last)]);
+        }
+    }
+}
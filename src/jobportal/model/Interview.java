@@ -2,15 +2,69 @@ package jobportal.model;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 import jobportal.DBConnection;
+import jobportal.schedule.InterviewScheduler;
 
 public class Interview {
+    // Interviewer and room bookings behind findConflicts/save/update, built by loadScheduler() from the interviews
+    // whose slots overlap -Djobportal.schedule.horizonDays (default 365) either side of today and kept current by
+    // save/update/delete. Slots outside that window are also checked against the database.
+    // Reloaded every -Djobportal.schedule.refreshHours (default 24) so the window moves with today, and
+    // retried no sooner than -Djobportal.schedule.retryMillis (default 30000) after a failed load
+    private static final int SCHEDULE_HORIZON_DAYS = Integer.getInteger("jobportal.schedule.horizonDays", 365);
+    private static final long SCHEDULE_REFRESH_MILLIS =
+            TimeUnit.HOURS.toMillis(Long.getLong("jobportal.schedule.refreshHours", 24L));
+    private static final long SCHEDULE_RETRY_MILLIS = Long.getLong("jobportal.schedule.retryMillis", 30_000L);
+    private static volatile InterviewScheduler scheduler = null;
+    // When getScheduler() should next load the scheduler
+    private static volatile long schedulerReloadAt = 0;
+    // The span, in epoch millis, whose bookings the current scheduler holds in full; guarded by schedulerLock
+    private static long schedulerWindowStart = 0;
+    private static long schedulerWindowEnd = 0;
+    // Guards scheduler updates, pendingBookings and reservations; only held for in-memory work
+    private static final Object schedulerLock = new Object();
+    // Serializes loads, which hold no lock the writers need while they query
+    private static final ReentrantLock schedulerLoadLock = new ReentrantLock();
+    // Booking changes made while a load runs, replayed onto the new scheduler before it is published
+    private static List<Interview> pendingBookings = null;
+    // Slots held by save/update while they write, by negative reservation id, so no interview id is reused
+    private static final Map<Integer, Interview> reservations = new HashMap<>();
+    private static int lastReservation = 0;
+
     private int interviewId;
     private int applicationId;
     private Date scheduledDate;
     private String status;
     private String feedback;
+    // Time slot and resources; null for interviews booked by date only
+    private Timestamp startTime;
+    private Timestamp endTime;
+    private String interviewer;
+    private String room;
+
+    // Columns read by ROW_MAPPER, in the order it reads them by index
+    static final String COLUMNS = "interview_id, application_id, scheduled_date, status, feedback, " +
+            "start_time, end_time, interviewer, room";
+    // Maps a row selected with COLUMNS, reading by position so there are no per-row label lookups
+    static final RowMapper<Interview> ROW_MAPPER = rs -> new Interview(
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getDate(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getTimestamp(6),
+            rs.getTimestamp(7),
+            rs.getString(8),
+            rs.getString(9)
+    );
 
     // Constructor for new interview
     public Interview(int applicationId, Date scheduledDate, String status, String feedback) {
@@ -20,6 +74,17 @@ public class Interview {
         this.feedback = feedback;
     }
 
+    // Constructor for new interview in a time slot with an interviewer and room (either may be null)
+    public Interview(int applicationId, Timestamp startTime, Timestamp endTime, String interviewer, String room) {
+        this.applicationId = applicationId;
+        this.scheduledDate = new Date(startTime.getTime());
+        this.status = "Scheduled";
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.interviewer = interviewer;
+        this.room = room;
+    }
+
     // Constructor for existing interview
     public Interview(int interviewId, int applicationId, Date scheduledDate, String status, String feedback) {
         this.interviewId = interviewId;
@@ -29,6 +94,16 @@ public class Interview {
         this.feedback = feedback;
     }
 
+    // Constructor for existing interview with a time slot
+    public Interview(int interviewId, int applicationId, Date scheduledDate, String status, String feedback,
+                     Timestamp startTime, Timestamp endTime, String interviewer, String room) {
+        this(interviewId, applicationId, scheduledDate, status, feedback);
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.interviewer = interviewer;
+        this.room = room;
+    }
+
     // Getters and setters
     public int getInterviewId() { return interviewId; }
     public void setInterviewId(int interviewId) { this.interviewId = interviewId; }
@@ -45,11 +120,39 @@ public class Interview {
     public String getFeedback() { return feedback; }
     public void setFeedback(String feedback) { this.feedback = feedback; }
 
+    public Timestamp getStartTime() { return startTime; }
+    // Also moves scheduledDate to the slot's day
+    public void setStartTime(Timestamp startTime) {
+        this.startTime = startTime;
+        if (startTime != null) {
+            this.scheduledDate = new Date(startTime.getTime());
+        }
+    }
+
+    public Timestamp getEndTime() { return endTime; }
+    public void setEndTime(Timestamp endTime) { this.endTime = endTime; }
+
+    public String getInterviewer() { return interviewer; }
+    public void setInterviewer(String interviewer) { this.interviewer = interviewer; }
+
+    public String getRoom() { return room; }
+    public void setRoom(String room) { this.room = room; }
+
+    // Whether this interview occupies its slot: it has one and is not cancelled
+    public boolean isBooked() {
+        return startTime != null && endTime != null && endTime.after(startTime) && !"Cancelled".equalsIgnoreCase(status);
+    }
+
     // Database operations
-    // Create a new interview
+    // Create a new interview. An interview with a slot is refused if its interviewer or room is already booked then.
     public boolean save() {
-        String sql = "INSERT INTO Interviews (application_id, scheduled_date, status, feedback) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO Interviews (application_id, scheduled_date, status, feedback, start_time, end_time, interviewer, room) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
+        Integer reservation = reserveSlot();
+        if (reservation == null) {
+            return false;
+        }
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -57,6 +160,10 @@ public class Interview {
             stmt.setDate(2, scheduledDate);
             stmt.setString(3, status);
             stmt.setString(4, feedback);
+            stmt.setTimestamp(5, startTime);
+            stmt.setTimestamp(6, endTime);
+            stmt.setString(7, interviewer);
+            stmt.setString(8, room);
 
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected > 0) {
@@ -65,18 +172,55 @@ public class Interview {
                 if (rs.next()) {
                     this.interviewId = rs.getInt(1);
                 }
+                updateScheduler(false);
                 return true;
             }
         } catch (SQLException e) {
             System.err.println("Error saving interview: " + e.getMessage());
+        } finally {
+            releaseSlot(reservation);
         }
         return false;
     }
 
-    // Update existing interview
+    // Insert many interviews with JDBC batches, one transaction per chunk, filling in their generated IDs.
+    // Returns the number saved; on failure the remaining interviews are left unsaved.
+    // Slots are booked without a conflict check, as when importing an existing calendar.
+    public static int saveAll(Collection<Interview> interviews) {
+        return saveAll(interviews, BatchInsert.DEFAULT_CHUNK_SIZE);
+    }
+
+    public static int saveAll(Collection<Interview> interviews, int chunkSize) {
+        String sql = "INSERT INTO Interviews (application_id, scheduled_date, status, feedback, start_time, end_time, interviewer, room) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        return BatchInsert.execute(sql, interviews, chunkSize,
+                (stmt, interview) -> {
+                    stmt.setInt(1, interview.applicationId);
+                    stmt.setDate(2, interview.scheduledDate);
+                    stmt.setString(3, interview.status);
+                    stmt.setString(4, interview.feedback);
+                    stmt.setTimestamp(5, interview.startTime);
+                    stmt.setTimestamp(6, interview.endTime);
+                    stmt.setString(7, interview.interviewer);
+                    stmt.setString(8, interview.room);
+                },
+                (interview, id) -> {
+                    interview.interviewId = id;
+                    interview.updateScheduler(false);
+                },
+                "interviews");
+    }
+
+    // Update existing interview. Moving it into a slot where its interviewer or room is booked is refused.
     public boolean update() {
-        String sql = "UPDATE Interviews SET application_id = ?, scheduled_date = ?, status = ?, feedback = ? WHERE interview_id = ?";
+        String sql = "UPDATE Interviews SET application_id = ?, scheduled_date = ?, status = ?, feedback = ?, " +
+                "start_time = ?, end_time = ?, interviewer = ?, room = ? WHERE interview_id = ?";
 
+        Integer reservation = reserveSlot();
+        if (reservation == null) {
+            return false;
+        }
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -84,12 +228,21 @@ public class Interview {
             stmt.setDate(2, scheduledDate);
             stmt.setString(3, status);
             stmt.setString(4, feedback);
-            stmt.setInt(5, interviewId);
+            stmt.setTimestamp(5, startTime);
+            stmt.setTimestamp(6, endTime);
+            stmt.setString(7, interviewer);
+            stmt.setString(8, room);
+            stmt.setInt(9, interviewId);
 
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                updateScheduler(false);
+            }
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error updating interview: " + e.getMessage());
+        } finally {
+            releaseSlot(reservation);
         }
         return false;
     }
@@ -104,6 +257,9 @@ public class Interview {
             stmt.setInt(1, interviewId);
 
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                updateScheduler(true);
+            }
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error deleting interview: " + e.getMessage());
@@ -113,7 +269,7 @@ public class Interview {
 
     // Find interview by ID
     public static Interview findById(int interviewId) {
-        String sql = "SELECT * FROM Interviews WHERE interview_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Interviews WHERE interview_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -122,13 +278,7 @@ public class Interview {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new Interview(
-                        rs.getInt("interview_id"),
-                        rs.getInt("application_id"),
-                        rs.getDate("scheduled_date"),
-                        rs.getString("status"),
-                        rs.getString("feedback")
-                );
+                return ROW_MAPPER.mapRow(rs);
             }
         } catch (SQLException e) {
             System.err.println("Error finding interview: " + e.getMessage());
@@ -138,7 +288,7 @@ public class Interview {
 
     // Find interview by application ID
     public static Interview findByApplicationId(int applicationId) {
-        String sql = "SELECT * FROM Interviews WHERE application_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Interviews WHERE application_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -147,13 +297,7 @@ public class Interview {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new Interview(
-                        rs.getInt("interview_id"),
-                        rs.getInt("application_id"),
-                        rs.getDate("scheduled_date"),
-                        rs.getString("status"),
-                        rs.getString("feedback")
-                );
+                return ROW_MAPPER.mapRow(rs);
             }
         } catch (SQLException e) {
             System.err.println("Error finding interview by application ID: " + e.getMessage());
@@ -164,7 +308,7 @@ public class Interview {
     // Find interviews by status
     public static List<Interview> findByStatus(String status) {
         List<Interview> interviews = new ArrayList<>();
-        String sql = "SELECT * FROM Interviews WHERE status = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Interviews WHERE status = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -173,13 +317,7 @@ public class Interview {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                interviews.add(new Interview(
-                        rs.getInt("interview_id"),
-                        rs.getInt("application_id"),
-                        rs.getDate("scheduled_date"),
-                        rs.getString("status"),
-                        rs.getString("feedback")
-                ));
+                interviews.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error finding interviews by status: " + e.getMessage());
@@ -190,20 +328,14 @@ public class Interview {
     // Get all interviews
     public static List<Interview> findAll() {
         List<Interview> interviews = new ArrayList<>();
-        String sql = "SELECT * FROM Interviews";
+        String sql = "SELECT " + COLUMNS + " FROM Interviews";
 
         try (Connection conn = DBConnection.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                interviews.add(new Interview(
-                        rs.getInt("interview_id"),
-                        rs.getInt("application_id"),
-                        rs.getDate("scheduled_date"),
-                        rs.getString("status"),
-                        rs.getString("feedback")
-                ));
+                interviews.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving interviews: " + e.getMessage());
@@ -211,10 +343,43 @@ public class Interview {
         return interviews;
     }
 
+    // Stream all interviews without loading them into memory; close the stream when done
+    public static Stream<Interview> streamAll() {
+        return streamAll(QueryStream.DEFAULT_FETCH_SIZE);
+    }
+
+    // Stream all interviews, fetching fetchSize rows per round trip
+    public static Stream<Interview> streamAll(int fetchSize) {
+        String sql = "SELECT " + COLUMNS + " FROM Interviews";
+        return QueryStream.of(sql, stmt -> { }, ROW_MAPPER, fetchSize);
+    }
+
+    // Get one page of interviews in interview_id order; pass null for the first page
+    public static Page<Interview> findPage(String cursor, int pageSize) {
+        List<Interview> interviews = new ArrayList<>();
+        int size = PageCursor.clampPageSize(pageSize);
+        String sql = "SELECT " + COLUMNS + " FROM Interviews WHERE interview_id > ? ORDER BY interview_id LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, PageCursor.decodeId(cursor));
+            stmt.setInt(2, size + 1);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                interviews.add(ROW_MAPPER.mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving page of interviews: " + e.getMessage());
+        }
+        return PageCursor.toPage(interviews, size, item -> PageCursor.encode(item.getInterviewId()));
+    }
+
     // Find interviews by date range
     public static List<Interview> findByDateRange(Date startDate, Date endDate) {
         List<Interview> interviews = new ArrayList<>();
-        String sql = "SELECT * FROM Interviews WHERE scheduled_date BETWEEN ? AND ?";
+        String sql = "SELECT " + COLUMNS + " FROM Interviews WHERE scheduled_date BETWEEN ? AND ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -224,13 +389,7 @@ public class Interview {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                interviews.add(new Interview(
-                        rs.getInt("interview_id"),
-                        rs.getInt("application_id"),
-                        rs.getDate("scheduled_date"),
-                        rs.getString("status"),
-                        rs.getString("feedback")
-                ));
+                interviews.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error finding interviews by date range: " + e.getMessage());
@@ -238,6 +397,265 @@ public class Interview {
         return interviews;
     }
 
+    // Save or update this interview; either refuses a slot where its interviewer or room is already booked
+    public boolean schedule() {
+        return interviewId == 0 ? save() : update();
+    }
+
+    // Ids of the booked interviews that share this interview's interviewer or room during its slot; negative ids
+    // are bookings still being saved. Null if the calendar or, for a slot outside it, the database could not be read.
+    public List<Integer> findConflicts() {
+        if (!isBooked()) {
+            return new ArrayList<>();
+        }
+        if (getScheduler() == null) {
+            return null;
+        }
+        List<Integer> conflicts;
+        boolean inWindow;
+        synchronized (schedulerLock) {
+            conflicts = scheduler.findConflicts(interviewer, room, startTime, endTime, interviewId);
+            inWindow = isInSchedulerWindow();
+        }
+        if (!inWindow) {
+            try {
+                for (int id : findStoredConflicts()) {
+                    if (!conflicts.contains(id)) {
+                        conflicts.add(id);
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error finding interview conflicts: " + e.getMessage());
+                return null;
+            }
+        }
+        return conflicts;
+    }
+
+    // Build the scheduler from the interviews within the horizon of today and replace the current one.
+    // On failure the current scheduler (possibly none) is kept and the load is retried later.
+    public static boolean loadScheduler() {
+        schedulerLoadLock.lock();
+        try {
+            synchronized (schedulerLock) {
+                pendingBookings = new ArrayList<>();
+            }
+            long today = System.currentTimeMillis();
+            long horizon = TimeUnit.DAYS.toMillis(SCHEDULE_HORIZON_DAYS);
+            InterviewScheduler schedule = new InterviewScheduler();
+            try {
+                loadBookings(today - horizon, today + horizon, schedule);
+            } catch (SQLException e) {
+                System.err.println("Error loading interview schedule: " + e.getMessage());
+                synchronized (schedulerLock) {
+                    pendingBookings = null;
+                }
+                schedulerReloadAt = System.currentTimeMillis() + SCHEDULE_RETRY_MILLIS;
+                return false;
+            }
+
+            synchronized (schedulerLock) {
+                // Changes written while the query ran may be missing from its results; they are replayed in order
+                for (Interview change : pendingBookings) {
+                    change.applyTo(schedule);
+                }
+                pendingBookings = null;
+                for (Map.Entry<Integer, Interview> held : reservations.entrySet()) {
+                    Interview slot = held.getValue();
+                    schedule.book(held.getKey(), slot.interviewer, slot.room, slot.startTime, slot.endTime);
+                }
+                scheduler = schedule;
+                schedulerWindowStart = today - horizon;
+                schedulerWindowEnd = today + horizon;
+                schedulerReloadAt = today + SCHEDULE_REFRESH_MILLIS;
+            }
+            return true;
+        } finally {
+            schedulerLoadLock.unlock();
+        }
+    }
+
+    // Book every interview whose slot overlaps [windowStart, windowEnd]. Filters on the slot itself, since
+    // scheduled_date can be set apart from it.
+    private static void loadBookings(long windowStart, long windowEnd, InterviewScheduler schedule) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM Interviews WHERE start_time < ? AND end_time > ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, new Timestamp(windowEnd));
+            stmt.setTimestamp(2, new Timestamp(windowStart));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                Interview interview = ROW_MAPPER.mapRow(rs);
+                if (interview.isBooked()) {
+                    interview.applyTo(schedule);
+                }
+            }
+        }
+    }
+
+    // Whether this interview's slot lies within the span the scheduler holds every booking of; caller holds
+    // schedulerLock
+    private boolean isInSchedulerWindow() {
+        return startTime.getTime() >= schedulerWindowStart && endTime.getTime() <= schedulerWindowEnd;
+    }
+
+    // Ids of the stored, booked interviews that share this interview's interviewer or room during its slot,
+    // matching names as the scheduler does
+    private List<Integer> findStoredConflicts() throws SQLException {
+        List<Integer> conflicts = new ArrayList<>();
+        String interviewerName = resourceName(interviewer);
+        String roomName = resourceName(room);
+        if (interviewerName == null && roomName == null) {
+            return conflicts;
+        }
+        String resource = interviewerName == null ? "LOWER(TRIM(room)) = ?"
+                : roomName == null ? "LOWER(TRIM(interviewer)) = ?"
+                : "(LOWER(TRIM(interviewer)) = ? OR LOWER(TRIM(room)) = ?)";
+        String sql = "SELECT interview_id FROM Interviews WHERE start_time < ? AND end_time > ? AND " + resource +
+                " AND interview_id <> ? AND (status IS NULL OR LOWER(status) <> 'cancelled')";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            stmt.setTimestamp(index++, endTime);
+            stmt.setTimestamp(index++, startTime);
+            if (interviewerName != null) {
+                stmt.setString(index++, interviewerName);
+            }
+            if (roomName != null) {
+                stmt.setString(index++, roomName);
+            }
+            stmt.setInt(index, interviewId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                conflicts.add(rs.getInt(1));
+            }
+        }
+        return conflicts;
+    }
+
+    private static String resourceName(String name) {
+        return name == null || name.isBlank() ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Get the scheduler, loading it on first use and reloading it when the horizon is due to move.
+    // Returns null if it has never loaded successfully.
+    public static InterviewScheduler getScheduler() {
+        if (System.currentTimeMillis() >= schedulerReloadAt) {
+            if (scheduler == null) {
+                // Nothing to fall back on, so wait for the load
+                schedulerLoadLock.lock();
+                try {
+                    if (scheduler == null && System.currentTimeMillis() >= schedulerReloadAt) {
+                        loadScheduler();
+                    }
+                } finally {
+                    schedulerLoadLock.unlock();
+                }
+            } else if (schedulerLoadLock.tryLock()) {
+                // Other threads keep using the current scheduler meanwhile
+                try {
+                    if (System.currentTimeMillis() >= schedulerReloadAt) {
+                        loadScheduler();
+                    }
+                } finally {
+                    schedulerLoadLock.unlock();
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    // Hold this interview's slot while it is written, so no concurrent save or update can take it.
+    // Returns 0 if there is no slot to hold, the reservation id, or null if the slot is taken or the calendar
+    // could not be loaded.
+    private Integer reserveSlot() {
+        if (!isBooked()) {
+            return 0;
+        }
+        if (getScheduler() == null) {
+            System.err.println("Error scheduling interview: the interview calendar could not be loaded");
+            return null;
+        }
+        int reservation;
+        boolean inWindow;
+        synchronized (schedulerLock) {
+            List<Integer> conflicts = scheduler.findConflicts(interviewer, room, startTime, endTime, interviewId);
+            if (!conflicts.isEmpty()) {
+                System.err.println("Error scheduling interview: clashes with interviews " + conflicts);
+                return null;
+            }
+            lastReservation = lastReservation == Integer.MIN_VALUE ? -1 : lastReservation - 1;
+            reservation = lastReservation;
+            scheduler.book(reservation, interviewer, room, startTime, endTime);
+            reservations.put(reservation, copy());
+            inWindow = isInSchedulerWindow();
+        }
+        if (inWindow) {
+            return reservation;
+        }
+        // The calendar does not hold every booking out here, so check the stored ones too. The reservation is
+        // already visible, so a concurrent booking of the same slot either sees it or was stored before this query.
+        try {
+            List<Integer> conflicts = findStoredConflicts();
+            if (conflicts.isEmpty()) {
+                return reservation;
+            }
+            System.err.println("Error scheduling interview: clashes with interviews " + conflicts);
+        } catch (SQLException e) {
+            System.err.println("Error scheduling interview: " + e.getMessage());
+        }
+        releaseSlot(reservation);
+        return null;
+    }
+
+    private static void releaseSlot(int reservation) {
+        if (reservation == 0) {
+            return;
+        }
+        synchronized (schedulerLock) {
+            reservations.remove(reservation);
+            if (scheduler != null) {
+                scheduler.cancel(reservation);
+            }
+        }
+    }
+
+    // Record a saved, updated or deleted interview in the scheduler and in any load in progress
+    private void updateScheduler(boolean deleted) {
+        Interview change = copy();
+        if (deleted) {
+            change.startTime = null;
+        }
+        synchronized (schedulerLock) {
+            if (scheduler != null) {
+                change.applyTo(scheduler);
+            }
+            if (pendingBookings != null) {
+                pendingBookings.add(change);
+            }
+        }
+    }
+
+    private void applyTo(InterviewScheduler schedule) {
+        if (isBooked()) {
+            schedule.book(interviewId, interviewer, room, startTime, endTime);
+        } else {
+            schedule.cancel(interviewId);
+        }
+    }
+
+    // Snapshot of the fields the scheduler uses, safe from later changes by the caller
+    private Interview copy() {
+        return new Interview(interviewId, applicationId, scheduledDate, status, feedback, startTime, endTime,
+                interviewer, room);
+    }
+
     // Get application for this interview
     public Application getApplication() {
         return Application.findById(this.applicationId);
@@ -263,6 +681,10 @@ public class Interview {
                 ", scheduledDate=" + scheduledDate +
                 ", status='" + status + '\'' +
                 ", feedback='" + feedback + '\'' +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", interviewer='" + interviewer + '\'' +
+                ", room='" + room + '\'' +
                 '}';
     }
 }
\ No newline at end of file
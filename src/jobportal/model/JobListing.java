@@ -0,0 +1,250 @@
+package jobportal.model;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import jobportal.DBConnection;
+import jobportal.search.SkillDictionary;
+import jobportal.search.SkillIndex;
+
+// Read-only view of a job posting joined with its company, for search results
+public class JobListing {
+    private static final String SELECT_LISTING =
+            "SELECT j.job_id, j.company_id, j.title, j.location, j.skills_required, j.date_posted, " +
+            "c.name AS company_name, c.location AS company_location, c.industry AS company_industry " +
+            "FROM Job_Postings j LEFT JOIN Companies c ON c.company_id = j.company_id";
+
+    private final int jobId;
+    private final int companyId;
+    private final String title;
+    private final String location;
+    private final String skillsRequired;
+    private final Date datePosted;
+    private final String companyName;
+    private final String companyLocation;
+    private final String companyIndustry;
+
+    public JobListing(int jobId, int companyId, String title, String location, String skillsRequired, Date datePosted,
+                      String companyName, String companyLocation, String companyIndustry) {
+        this.jobId = jobId;
+        this.companyId = companyId;
+        this.title = title;
+        this.location = location;
+        this.skillsRequired = skillsRequired;
+        this.datePosted = datePosted;
+        this.companyName = companyName;
+        this.companyLocation = companyLocation;
+        this.companyIndustry = companyIndustry;
+    }
+
+    // Getters
+    public int getJobId() { return jobId; }
+
+    public int getCompanyId() { return companyId; }
+
+    public String getTitle() { return title; }
+
+    public String getLocation() { return location; }
+
+    public String getSkillsRequired() { return skillsRequired; }
+
+    public Date getDatePosted() { return datePosted; }
+
+    // Null when the posting references a company that no longer exists
+    public String getCompanyName() { return companyName; }
+
+    public String getCompanyLocation() { return companyLocation; }
+
+    public String getCompanyIndustry() { return companyIndustry; }
+
+    // Database operations
+    // Search job listings that require every given skill, using the job posting skill index.
+    // An empty query matches every posting that lists skills.
+    public static List<JobListing> searchBySkills(String skills) {
+        SkillIndex index = JobPosting.getSkillIndex();
+        if (index == null || SkillDictionary.tokenize(skills).isEmpty()) {
+            return scanPageBySkills(skills, 0, Integer.MAX_VALUE);
+        }
+        return findBySortedJobIds(index.searchAll(skills));
+    }
+
+    // Get one page of the job listings that require every given skill, in job_id order; pass null for the first page
+    public static Page<JobListing> searchPageBySkills(String skills, String cursor, int pageSize) {
+        int size = PageCursor.clampPageSize(pageSize);
+        int after = PageCursor.decodeId(cursor);
+        SkillIndex index = JobPosting.getSkillIndex();
+        if (index == null || SkillDictionary.tokenize(skills).isEmpty()) {
+            return PageCursor.toPage(scanPageBySkills(skills, after, size + 1), size,
+                    job -> PageCursor.encode(job.getJobId()));
+        }
+        // Already in ascending order
+        int[] ids = index.searchAll(skills);
+        int from = Arrays.binarySearch(ids, after + 1);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int[] pageIds = Arrays.copyOfRange(ids, from, Math.min(ids.length, from + size + 1));
+        return PageCursor.toPage(findBySortedJobIds(pageIds), size, job -> PageCursor.encode(job.getJobId()));
+    }
+
+    // Search the table for up to limit listings after the given job ID that require every given skill,
+    // in job_id order; used when the skill index is unavailable
+    private static List<JobListing> scanPageBySkills(String skills, int after, int limit) {
+        List<String> names = SkillDictionary.tokenize(skills);
+        List<JobListing> listings = new ArrayList<>();
+        String sql = SELECT_LISTING + " WHERE j.skills_required IS NOT NULL" +
+                JobPosting.skillConditions("j.skills_required", names) + " AND j.job_id > ? ORDER BY j.job_id";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = JobPosting.bindSkillConditions(stmt, 1, names);
+            stmt.setInt(index, after);
+            if (names.isEmpty() && limit < Integer.MAX_VALUE) {
+                // Every row matches, so the database can stop at the limit
+                stmt.setMaxRows(limit);
+            }
+            ResultSet rs = stmt.executeQuery();
+
+            while (listings.size() < limit && rs.next()) {
+                JobListing listing = mapRow(rs);
+                if (JobPosting.hasAllSkills(listing.skillsRequired, names)) {
+                    listings.add(listing);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching job listings by skills: " + e.getMessage());
+        }
+        return listings;
+    }
+
+    // Find job listings by a list of job IDs, in ascending ID order
+    public static List<JobListing> findByJobIds(int[] jobIds) {
+        int[] ids = jobIds.clone();
+        Arrays.sort(ids);
+        return findBySortedJobIds(ids);
+    }
+
+    // findByJobIds for IDs already in ascending order, such as the skill index returns
+    private static List<JobListing> findBySortedJobIds(int[] ids) {
+        List<JobListing> listings = new ArrayList<>();
+        if (ids.length == 0) {
+            return listings;
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            for (int from = 0; from < ids.length; from += InClause.MAX_CHUNK_SIZE) {
+                int size = InClause.chunkSize(ids.length - from);
+                String sql = SELECT_LISTING + " WHERE j.job_id IN (" + InClause.placeholders(size) + ") ORDER BY j.job_id";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InClause.bind(stmt, ids, from, size);
+                    ResultSet rs = stmt.executeQuery();
+
+                    while (rs.next()) {
+                        listings.add(mapRow(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding job listings by IDs: " + e.getMessage());
+        }
+        return listings;
+    }
+
+    // Search job listings by location
+    public static List<JobListing> searchByLocation(String location) {
+        List<JobListing> listings = new ArrayList<>();
+        String sql = SELECT_LISTING + " WHERE j.location LIKE ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, "%" + location + "%");
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                listings.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching job listings by location: " + e.getMessage());
+        }
+        return listings;
+    }
+
+    // Get one page of the job listings whose location contains the given text, in job_id order;
+    // pass null for the first page
+    public static Page<JobListing> searchPageByLocation(String location, String cursor, int pageSize) {
+        List<JobListing> listings = new ArrayList<>();
+        int size = PageCursor.clampPageSize(pageSize);
+        String sql = SELECT_LISTING + " WHERE j.location LIKE ? AND j.job_id > ? ORDER BY j.job_id LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, "%" + location + "%");
+            stmt.setInt(2, PageCursor.decodeId(cursor));
+            stmt.setInt(3, size + 1);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                listings.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching page of job listings by location: " + e.getMessage());
+        }
+        return PageCursor.toPage(listings, size, job -> PageCursor.encode(job.getJobId()));
+    }
+
+    // Get all job listings
+    public static List<JobListing> findAll() {
+        List<JobListing> listings = new ArrayList<>();
+        String sql = SELECT_LISTING;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                listings.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving job listings: " + e.getMessage());
+        }
+        return listings;
+    }
+
+    // Get one page of job listings, newest first; pass null for the first page.
+    // Postings without a date_posted come last, newest ID first.
+    public static Page<JobListing> findPageByDatePosted(String cursor, int pageSize) {
+        return PageCursor.findPageByDate(SELECT_LISTING, "j.date_posted", "j.job_id", cursor, pageSize,
+                JobListing::mapRow, JobListing::getDatePosted, JobListing::getJobId, "page of job listings");
+    }
+
+    // Reads the columns of SELECT_LISTING by position
+    private static JobListing mapRow(ResultSet rs) throws SQLException {
+        return new JobListing(
+                rs.getInt(1),
+                rs.getInt(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getDate(6),
+                rs.getString(7),
+                rs.getString(8),
+                rs.getString(9)
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "JobListing{" +
+                "jobId=" + jobId +
+                ", title='" + title + '\'' +
+                ", companyName='" + companyName + '\'' +
+                ", location='" + location + '\'' +
+                ", datePosted=" + datePosted +
+                '}';
+    }
+}
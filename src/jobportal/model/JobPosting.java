@@ -2,10 +2,32 @@ package jobportal.model;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 import jobportal.DBConnection;
+import jobportal.search.SkillDictionary;
+import jobportal.search.SkillIndex;
+import jobportal.search.SkillSet;
 
 public class JobPosting {
+    // Inverted skill index behind searchBySkills, built by loadSkillIndex() and kept current by save/update/delete.
+    // Searches query the table while there is no index; a failed load is retried no sooner than
+    // -Djobportal.search.retryMillis (default 30000) later
+    private static final long SKILL_INDEX_RETRY_MILLIS = Long.getLong("jobportal.search.retryMillis", 30_000L);
+    private static volatile SkillIndex skillIndex = null;
+    // No automatic load before this time, after a failed one
+    private static volatile long skillIndexRetryAt = 0;
+    // Guards skillIndex updates and pendingSkills; only held for in-memory work
+    private static final Object skillIndexLock = new Object();
+    // Serializes loads, which hold no lock the writers need while they query
+    private static final ReentrantLock skillIndexLoadLock = new ReentrantLock();
+    // Skill changes made while a load runs, replayed onto the new index before it is published
+    private static List<JobPosting> pendingSkills = null;
+
     private int jobId;
     private int companyId;
     private String title;
@@ -13,6 +35,21 @@ public class JobPosting {
     private String location;
     private String skillsRequired;
     private Date datePosted;
+    // Parsed form of skillsRequired, built on first use
+    private SkillSet skillSet;
+
+    // Columns read by ROW_MAPPER, in the order it reads them by index
+    static final String COLUMNS = "job_id, company_id, title, description, location, skills_required, date_posted";
+    // Maps a row selected with COLUMNS, reading by position so there are no per-row label lookups
+    static final RowMapper<JobPosting> ROW_MAPPER = rs -> new JobPosting(
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getDate(7)
+    );
 
     // Constructor for new job posting
     public JobPosting(int companyId, String title, String description, String location, String skillsRequired, Date datePosted) {
@@ -52,7 +89,17 @@ public class JobPosting {
     public void setLocation(String location) { this.location = location; }
 
     public String getSkillsRequired() { return skillsRequired; }
-    public void setSkillsRequired(String skillsRequired) { this.skillsRequired = skillsRequired; }
+    public void setSkillsRequired(String skillsRequired) {
+        this.skillsRequired = skillsRequired;
+        this.skillSet = null;
+    }
+
+    public SkillSet getSkillSet() {
+        if (skillSet == null) {
+            skillSet = SkillSet.parse(skillsRequired);
+        }
+        return skillSet;
+    }
 
     public Date getDatePosted() { return datePosted; }
     public void setDatePosted(Date datePosted) { this.datePosted = datePosted; }
@@ -62,6 +109,7 @@ public class JobPosting {
     public boolean save() {
         String sql = "INSERT INTO Job_Postings (company_id, title, description, location, skills_required, date_posted) VALUES (?, ?, ?, ?, ?, ?)";
 
+        int rowsAffected = 0;
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -72,25 +120,60 @@ public class JobPosting {
             stmt.setString(5, skillsRequired);
             stmt.setDate(6, datePosted);
 
-            int rowsAffected = stmt.executeUpdate();
+            rowsAffected = stmt.executeUpdate();
             if (rowsAffected > 0) {
                 // Get the auto-generated ID
                 ResultSet rs = stmt.getGeneratedKeys();
                 if (rs.next()) {
                     this.jobId = rs.getInt(1);
                 }
-                return true;
             }
         } catch (SQLException e) {
             System.err.println("Error saving job posting: " + e.getMessage());
         }
-        return false;
+        if (rowsAffected > 0) {
+            indexSkills(false);
+        }
+        return rowsAffected > 0;
+    }
+
+    // Insert many job postings with JDBC batches, one transaction per chunk, filling in their generated IDs.
+    // Returns the number saved; on failure the remaining job postings are left unsaved.
+    public static int saveAll(Collection<JobPosting> jobPostings) {
+        return saveAll(jobPostings, BatchInsert.DEFAULT_CHUNK_SIZE);
+    }
+
+    public static int saveAll(Collection<JobPosting> jobPostings, int chunkSize) {
+        String sql = "INSERT INTO Job_Postings (company_id, title, description, location, skills_required, date_posted) VALUES (?, ?, ?, ?, ?, ?)";
+
+        int saved = BatchInsert.execute(sql, jobPostings, chunkSize,
+                (stmt, job) -> {
+                    stmt.setInt(1, job.companyId);
+                    stmt.setString(2, job.title);
+                    stmt.setString(3, job.description);
+                    stmt.setString(4, job.location);
+                    stmt.setString(5, job.skillsRequired);
+                    stmt.setDate(6, job.datePosted);
+                },
+                (job, id) -> job.jobId = id,
+                "job postings");
+
+        // The saved postings are the first ones in iteration order
+        int remaining = saved;
+        for (JobPosting job : jobPostings) {
+            if (remaining-- == 0) {
+                break;
+            }
+            job.indexSkills(false);
+        }
+        return saved;
     }
 
     // Update existing job posting
     public boolean update() {
         String sql = "UPDATE Job_Postings SET company_id = ?, title = ?, description = ?, location = ?, skills_required = ?, date_posted = ? WHERE job_id = ?";
 
+        int rowsAffected = 0;
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -102,34 +185,39 @@ public class JobPosting {
             stmt.setDate(6, datePosted);
             stmt.setInt(7, jobId);
 
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+            rowsAffected = stmt.executeUpdate();
         } catch (SQLException e) {
             System.err.println("Error updating job posting: " + e.getMessage());
         }
-        return false;
+        if (rowsAffected > 0) {
+            indexSkills(false);
+        }
+        return rowsAffected > 0;
     }
 
     // Delete job posting
     public boolean delete() {
         String sql = "DELETE FROM Job_Postings WHERE job_id = ?";
 
+        int rowsAffected = 0;
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, jobId);
 
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+            rowsAffected = stmt.executeUpdate();
         } catch (SQLException e) {
             System.err.println("Error deleting job posting: " + e.getMessage());
         }
-        return false;
+        if (rowsAffected > 0) {
+            indexSkills(true);
+        }
+        return rowsAffected > 0;
     }
 
     // Find job posting by ID
     public static JobPosting findById(int jobId) {
-        String sql = "SELECT * FROM Job_Postings WHERE job_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Job_Postings WHERE job_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -138,15 +226,7 @@ public class JobPosting {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new JobPosting(
-                        rs.getInt("job_id"),
-                        rs.getInt("company_id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getString("location"),
-                        rs.getString("skills_required"),
-                        rs.getDate("date_posted")
-                );
+                return ROW_MAPPER.mapRow(rs);
             }
         } catch (SQLException e) {
             System.err.println("Error finding job posting: " + e.getMessage());
@@ -157,7 +237,7 @@ public class JobPosting {
     // Find job postings by company ID
     public static List<JobPosting> findByCompanyId(int companyId) {
         List<JobPosting> jobPostings = new ArrayList<>();
-        String sql = "SELECT * FROM Job_Postings WHERE company_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Job_Postings WHERE company_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -166,15 +246,7 @@ public class JobPosting {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                jobPostings.add(new JobPosting(
-                        rs.getInt("job_id"),
-                        rs.getInt("company_id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getString("location"),
-                        rs.getString("skills_required"),
-                        rs.getDate("date_posted")
-                ));
+                jobPostings.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error finding job postings by company: " + e.getMessage());
@@ -182,27 +254,65 @@ public class JobPosting {
         return jobPostings;
     }
 
-    // Search job postings by skills
+    // Find job postings by a list of IDs, in ascending ID order
+    public static List<JobPosting> findByIds(int[] jobIds) {
+        int[] ids = jobIds.clone();
+        Arrays.sort(ids);
+        return findBySortedIds(ids);
+    }
+
+    // findByIds for IDs already in ascending order, such as the skill index returns
+    private static List<JobPosting> findBySortedIds(int[] ids) {
+        List<JobPosting> jobPostings = new ArrayList<>();
+        if (ids.length == 0) {
+            return jobPostings;
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            for (int from = 0; from < ids.length; from += InClause.MAX_CHUNK_SIZE) {
+                int size = InClause.chunkSize(ids.length - from);
+                String sql = "SELECT " + COLUMNS + " FROM Job_Postings WHERE job_id IN (" + InClause.placeholders(size) + ") ORDER BY job_id";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InClause.bind(stmt, ids, from, size);
+                    ResultSet rs = stmt.executeQuery();
+
+                    while (rs.next()) {
+                        jobPostings.add(ROW_MAPPER.mapRow(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding job postings by IDs: " + e.getMessage());
+        }
+        return jobPostings;
+    }
+
+    // Search job postings that require every given skill (comma separated, matched as whole skills).
+    // An empty query matches every posting that lists skills.
     public static List<JobPosting> searchBySkills(String skills) {
+        SkillIndex index = getSkillIndex();
+        if (index != null && !SkillDictionary.tokenize(skills).isEmpty()) {
+            return findBySortedIds(index.searchAll(skills));
+        }
+
+        // No index yet, or a query the index has no entry for: search the table
+        List<String> names = SkillDictionary.tokenize(skills);
         List<JobPosting> jobPostings = new ArrayList<>();
-        String sql = "SELECT * FROM Job_Postings WHERE skills_required LIKE ?";
+        String sql = "SELECT " + COLUMNS + " FROM Job_Postings WHERE skills_required IS NOT NULL" +
+                skillConditions("skills_required", names) + " ORDER BY job_id";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, "%" + skills + "%");
+            bindSkillConditions(stmt, 1, names);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                jobPostings.add(new JobPosting(
-                        rs.getInt("job_id"),
-                        rs.getInt("company_id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getString("location"),
-                        rs.getString("skills_required"),
-                        rs.getDate("date_posted")
-                ));
+                JobPosting job = ROW_MAPPER.mapRow(rs);
+                if (hasAllSkills(job.skillsRequired, names)) {
+                    jobPostings.add(job);
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error searching job postings by skills: " + e.getMessage());
@@ -210,10 +320,33 @@ public class JobPosting {
         return jobPostings;
     }
 
+    // SQL conditions narrowing a skills column to the rows that mention every skill. LIKE also matches part of
+    // a longer skill ("java" in "javascript"), so rows must still pass hasAllSkills()
+    static String skillConditions(String column, List<String> names) {
+        StringBuilder conditions = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            conditions.append(" AND LOWER(").append(column).append(") LIKE ?");
+        }
+        return conditions.toString();
+    }
+
+    // Bind the parameters of skillConditions() from the given index; returns the next index
+    static int bindSkillConditions(PreparedStatement stmt, int index, List<String> names) throws SQLException {
+        for (String name : names) {
+            stmt.setString(index++, "%" + name + "%");
+        }
+        return index;
+    }
+
+    // Whether a skill list has every one of the normalized skill names, matched as whole skills
+    static boolean hasAllSkills(String skillsRequired, List<String> names) {
+        return names.isEmpty() || new HashSet<>(SkillDictionary.tokenize(skillsRequired)).containsAll(names);
+    }
+
     // Search job postings by location
     public static List<JobPosting> searchByLocation(String location) {
         List<JobPosting> jobPostings = new ArrayList<>();
-        String sql = "SELECT * FROM Job_Postings WHERE location LIKE ?";
+        String sql = "SELECT " + COLUMNS + " FROM Job_Postings WHERE location LIKE ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -222,15 +355,7 @@ public class JobPosting {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                jobPostings.add(new JobPosting(
-                        rs.getInt("job_id"),
-                        rs.getInt("company_id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getString("location"),
-                        rs.getString("skills_required"),
-                        rs.getDate("date_posted")
-                ));
+                jobPostings.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error searching job postings by location: " + e.getMessage());
@@ -241,22 +366,14 @@ public class JobPosting {
     // Get all job postings
     public static List<JobPosting> findAll() {
         List<JobPosting> jobPostings = new ArrayList<>();
-        String sql = "SELECT * FROM Job_Postings";
+        String sql = "SELECT " + COLUMNS + " FROM Job_Postings";
 
         try (Connection conn = DBConnection.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                jobPostings.add(new JobPosting(
-                        rs.getInt("job_id"),
-                        rs.getInt("company_id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getString("location"),
-                        rs.getString("skills_required"),
-                        rs.getDate("date_posted")
-                ));
+                jobPostings.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving job postings: " + e.getMessage());
@@ -264,6 +381,120 @@ public class JobPosting {
         return jobPostings;
     }
 
+    // Stream all job postings without loading them into memory; close the stream when done
+    public static Stream<JobPosting> streamAll() {
+        return streamAll(QueryStream.DEFAULT_FETCH_SIZE);
+    }
+
+    // Stream all job postings, fetching fetchSize rows per round trip
+    public static Stream<JobPosting> streamAll(int fetchSize) {
+        String sql = "SELECT " + COLUMNS + " FROM Job_Postings";
+        return QueryStream.of(sql, stmt -> { }, ROW_MAPPER, fetchSize);
+    }
+
+    // Get one page of job postings in job_id order; pass null for the first page
+    public static Page<JobPosting> findPage(String cursor, int pageSize) {
+        List<JobPosting> jobPostings = new ArrayList<>();
+        int size = PageCursor.clampPageSize(pageSize);
+        String sql = "SELECT " + COLUMNS + " FROM Job_Postings WHERE job_id > ? ORDER BY job_id LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, PageCursor.decodeId(cursor));
+            stmt.setInt(2, size + 1);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                jobPostings.add(ROW_MAPPER.mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving page of job postings: " + e.getMessage());
+        }
+        return PageCursor.toPage(jobPostings, size, item -> PageCursor.encode(item.getJobId()));
+    }
+
+    // Get one page of job postings, newest first; pass null for the first page.
+    // Postings without a date_posted come last, newest ID first.
+    public static Page<JobPosting> findPageByDatePosted(String cursor, int pageSize) {
+        return PageCursor.findPageByDate("SELECT " + COLUMNS + " FROM Job_Postings", "date_posted", "job_id",
+                cursor, pageSize, ROW_MAPPER, JobPosting::getDatePosted, JobPosting::getJobId,
+                "page of job postings by date");
+    }
+
+    // Build the skill index from all job postings and replace the current one.
+    // On failure the current index (possibly none) is kept and the load is retried later.
+    public static boolean loadSkillIndex() {
+        String sql = "SELECT job_id, skills_required FROM Job_Postings";
+
+        skillIndexLoadLock.lock();
+        try {
+            synchronized (skillIndexLock) {
+                pendingSkills = new ArrayList<>();
+            }
+            SkillIndex index = new SkillIndex();
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    index.index(rs.getInt(1), rs.getString(2));
+                }
+            } catch (SQLException e) {
+                System.err.println("Error loading skill index: " + e.getMessage());
+                synchronized (skillIndexLock) {
+                    pendingSkills = null;
+                }
+                skillIndexRetryAt = System.currentTimeMillis() + SKILL_INDEX_RETRY_MILLIS;
+                return false;
+            }
+
+            synchronized (skillIndexLock) {
+                // Changes written while the query ran may be missing from its results; they are replayed in order
+                for (JobPosting change : pendingSkills) {
+                    index.index(change.jobId, change.getSkillSet());
+                }
+                pendingSkills = null;
+                skillIndex = index;
+            }
+            return true;
+        } finally {
+            skillIndexLoadLock.unlock();
+        }
+    }
+
+    // Get the skill index, loading it on first use. Returns null while there is none: during the first load,
+    // or after a failed load until it is retried.
+    public static SkillIndex getSkillIndex() {
+        SkillIndex index = skillIndex;
+        if (index == null && System.currentTimeMillis() >= skillIndexRetryAt && skillIndexLoadLock.tryLock()) {
+            try {
+                if (skillIndex == null && System.currentTimeMillis() >= skillIndexRetryAt) {
+                    loadSkillIndex();
+                }
+            } finally {
+                skillIndexLoadLock.unlock();
+            }
+            index = skillIndex;
+        }
+        return index;
+    }
+
+    // Record a saved, updated or deleted posting in the index and in any load in progress;
+    // call after the write, with the connection returned
+    private void indexSkills(boolean deleted) {
+        JobPosting change = new JobPosting(jobId, companyId, title, description, location,
+                deleted ? null : skillsRequired, datePosted);
+        synchronized (skillIndexLock) {
+            if (skillIndex != null) {
+                skillIndex.index(change.jobId, change.getSkillSet());
+            }
+            if (pendingSkills != null) {
+                pendingSkills.add(change);
+            }
+        }
+    }
+
     // Get applications for this job
     public List<Application> getApplications() {
         return Application.findByJobId(this.jobId);
@@ -0,0 +1,115 @@
+package jobportal.model;
+
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+import jobportal.cache.BloomFilter;
+
+/**
+ * A Bloom filter of the keys in one table, built by a full scan and then kept current by the writers.
+ * <p>
+ * Writers never wait: they add to the published filter and, while a load runs, also to the filter
+ * being built, which replaces the published one only once its scan is done. Lookups never wait
+ * either; while there is no filter they get null and query the table instead. A failed scan is
+ * reported and not retried for {@code retryMillis}, so a database outage does not turn every
+ * lookup into another full scan.
+ */
+final class KeyFilter {
+    @FunctionalInterface
+    interface Scan {
+        // Add every key in the table to the filter
+        void addAll(BloomFilter filter) throws SQLException;
+    }
+
+    private final String name;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final long retryMillis;
+    private final Scan scan;
+    // Serializes loads; never held by writers or lookups
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile BloomFilter current = null;
+    // The filter a load in progress is building
+    private volatile BloomFilter loading = null;
+    // No automatic load before this time, after a failed one
+    private volatile long retryAt = 0;
+
+    /**
+     * @param name What to call the filter in error messages
+     * @param retryMillis How long get() waits after a failed load before loading again
+     */
+    KeyFilter(String name, long expectedKeys, double falsePositiveRate, long retryMillis, Scan scan) {
+        this.name = name;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.retryMillis = retryMillis;
+        this.scan = scan;
+    }
+
+    // Build a new filter from the table and publish it; on failure the current filter, if any, is kept
+    boolean load() {
+        loadLock.lock();
+        try {
+            BloomFilter filter = new BloomFilter(expectedKeys, falsePositiveRate);
+            // Set before the scan starts, so a key the scan's snapshot misses was written later and its
+            // writer adds it here
+            loading = filter;
+            try {
+                scan.addAll(filter);
+            } catch (SQLException e) {
+                loading = null;
+                retryAt = System.currentTimeMillis() + retryMillis;
+                System.err.println("Error loading " + name + ": " + e.getMessage());
+                return false;
+            }
+            // Publish before clearing loading, so a writer always sees at least one of them
+            current = filter;
+            loading = null;
+            return true;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * The filter, loading it on first use. Null while there is none: before the first load
+     * completes, or after a failed load until the retry time.
+     */
+    BloomFilter get() {
+        BloomFilter filter = current;
+        if (filter == null && System.currentTimeMillis() >= retryAt && loadLock.tryLock()) {
+            try {
+                if (current == null && System.currentTimeMillis() >= retryAt) {
+                    load();
+                }
+            } finally {
+                loadLock.unlock();
+            }
+            filter = current;
+        }
+        return filter;
+    }
+
+    // Record a key written to the table; call after the write has committed
+    void add(long key) {
+        // Read loading first: if it is null here, any load starts its scan after this write committed
+        BloomFilter building = loading;
+        if (building != null) {
+            building.add(key);
+        }
+        BloomFilter filter = current;
+        if (filter != null && filter != building) {
+            filter.add(key);
+        }
+    }
+
+    void add(String key) {
+        BloomFilter building = loading;
+        if (building != null) {
+            building.add(key);
+        }
+        BloomFilter filter = current;
+        if (filter != null && filter != building) {
+            filter.add(key);
+        }
+    }
+}
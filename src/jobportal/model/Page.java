@@ -0,0 +1,30 @@
+package jobportal.model;
+
+import java.util.List;
+
+// One page of a keyset-paginated query.
+// Pass getNextCursor() back to the same finder to get the following page.
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    // Opaque cursor for the next page, or null if this is the last page
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasNext() { return nextCursor != null; }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items.size() +
+                ", hasNext=" + hasNext() +
+                '}';
+    }
+}
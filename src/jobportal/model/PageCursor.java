@@ -0,0 +1,157 @@
+package jobportal.model;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import jobportal.DBConnection;
+
+// Keyset pagination helpers.
+// A cursor is the sort key of the last row of a page, Base64 encoded so callers treat it as opaque.
+final class PageCursor {
+    static final int MAX_PAGE_SIZE = 1_000;
+
+    private PageCursor() {
+    }
+
+    // Sort key of a page ordered by (date, id) descending with undated rows last; date is null in that tail
+    static final class DateKey {
+        final Date date;
+        final int id;
+
+        DateKey(Date date, int id) {
+            this.date = date;
+            this.id = id;
+        }
+    }
+
+    static String encode(int id) {
+        return encode("id:" + id);
+    }
+
+    // A null date encodes as "null", so a cursor in the undated tail stays there
+    static String encode(Date date, int id) {
+        return encode("date:" + date + ":" + id);
+    }
+
+    // ID after which the next page starts; 0 for the first page
+    static int decodeId(String cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        String key = decode(cursor);
+        try {
+            if (key.startsWith("id:")) {
+                return Integer.parseInt(key.substring(3));
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+    }
+
+    // (date, id) after which the next page starts; null for the first page
+    static DateKey decodeDateKey(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String key = decode(cursor);
+        String[] parts = key.split(":");
+        try {
+            if (parts.length == 3 && parts[0].equals("date")) {
+                Date date = parts[1].equals("null") ? null : Date.valueOf(parts[1]);
+                return new DateKey(date, Integer.parseInt(parts[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+    }
+
+    // One page of rows ordered by (dateColumn, idColumn) descending, undated rows last with the newest ID first.
+    // select is a SELECT ... FROM with no WHERE clause; dateColumn and idColumn are the sort columns as it names
+    // them, which should be indexed together. Two seeks: the dated rows, then the undated tail if the page has
+    // room. On a database error the rows read so far are returned and the error is reported as retrieving label.
+    static <T> Page<T> findPageByDate(String select, String dateColumn, String idColumn, String cursor, int pageSize,
+                                      RowMapper<T> rowMapper, Function<T, Date> dateOf, ToIntFunction<T> idOf,
+                                      String label) {
+        List<T> rows = new ArrayList<>();
+        int size = clampPageSize(pageSize);
+        DateKey after = decodeDateKey(cursor);
+        String datedSql = after == null
+                ? select + " WHERE " + dateColumn + " IS NOT NULL"
+                : select + " WHERE " + dateColumn + " < ? OR (" + dateColumn + " = ? AND " + idColumn + " < ?)";
+        datedSql += " ORDER BY " + dateColumn + " DESC, " + idColumn + " DESC LIMIT ?";
+        boolean inUndated = after != null && after.date == null;
+        String undatedSql = select + " WHERE " + dateColumn + " IS NULL" + (inUndated ? " AND " + idColumn + " < ?" : "") +
+                " ORDER BY " + idColumn + " DESC LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection()) {
+            if (!inUndated) {
+                try (PreparedStatement stmt = conn.prepareStatement(datedSql)) {
+                    int index = 1;
+                    if (after != null) {
+                        stmt.setDate(index++, after.date);
+                        stmt.setDate(index++, after.date);
+                        stmt.setInt(index++, after.id);
+                    }
+                    stmt.setInt(index, size + 1);
+                    ResultSet rs = stmt.executeQuery();
+
+                    while (rs.next()) {
+                        rows.add(rowMapper.mapRow(rs));
+                    }
+                }
+            }
+            if (rows.size() <= size) {
+                try (PreparedStatement stmt = conn.prepareStatement(undatedSql)) {
+                    int index = 1;
+                    if (inUndated) {
+                        stmt.setInt(index++, after.id);
+                    }
+                    stmt.setInt(index, size + 1 - rows.size());
+                    ResultSet rs = stmt.executeQuery();
+
+                    while (rs.next()) {
+                        rows.add(rowMapper.mapRow(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving " + label + ": " + e.getMessage());
+        }
+        return toPage(rows, size, row -> encode(dateOf.apply(row), idOf.applyAsInt(row)));
+    }
+
+    static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    // Finders fetch pageSize + 1 rows; the extra row only tells us whether there is a next page
+    static <T> Page<T> toPage(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        rows.remove(pageSize);
+        return new Page<>(rows, cursorOf.apply(rows.get(pageSize - 1)));
+    }
+
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+    }
+}
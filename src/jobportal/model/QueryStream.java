@@ -0,0 +1,106 @@
+package jobportal.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import jobportal.DBConnection;
+
+// Lazily populated streams over query results.
+// Rows are fetched from the server fetchSize at a time (the JDBC URL enables cursor fetch),
+// so memory stays flat however many rows the query returns. The stream holds a pooled
+// connection until it is exhausted or closed, so always close it with try-with-resources.
+public final class QueryStream {
+    // Rows per round trip, overridable with -Djobportal.stream.fetchSize
+    public static final int DEFAULT_FETCH_SIZE = Integer.getInteger("jobportal.stream.fetchSize", 1_000);
+
+    // Binds the parameters of a streamed query
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private QueryStream() {
+    }
+
+    static <T> Stream<T> of(String sql, Binder binder, RowMapper<T> mapper, int fetchSize) {
+        Connection conn = DBConnection.getConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs;
+        try {
+            // The three-argument form bypasses the statement cache: this statement stays open for the whole stream
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
+            binder.bind(stmt);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            close(null, stmt, conn);
+            throw new RuntimeException("Failed to start streaming query", e);
+        }
+
+        Cursor<T> cursor = new Cursor<>(conn, stmt, rs, mapper);
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static void close(ResultSet rs, PreparedStatement stmt, Connection conn) {
+        try {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing resources: " + e.getMessage());
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private boolean closed = false;
+
+        private Cursor(Connection conn, PreparedStatement stmt, ResultSet rs, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conn = conn;
+            this.stmt = stmt;
+            this.rs = rs;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    // Hand the connection back as soon as the last row has been read
+                    close();
+                    return false;
+                }
+                action.accept(mapper.mapRow(rs));
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeException("Failed to read streamed row", e);
+            }
+        }
+
+        private void close() {
+            if (!closed) {
+                closed = true;
+                QueryStream.close(rs, stmt, conn);
+            }
+        }
+    }
+}
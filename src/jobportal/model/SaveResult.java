@@ -0,0 +1,11 @@
+package jobportal.model;
+
+/**
+ * Outcome of an insert that is guarded by a unique key.
+ */
+public enum SaveResult {
+    SAVED,
+    // A row with the same unique key already exists
+    DUPLICATE,
+    FAILED
+}
@@ -0,0 +1,26 @@
+package jobportal.model;
+
+import java.sql.SQLException;
+
+/**
+ * Classification of driver errors the models react to rather than just report.
+ */
+final class SqlErrors {
+    // MySQL ER_DUP_ENTRY
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    // SQL standard unique_violation, used by most other databases
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private SqlErrors() {
+    }
+
+    // True if the statement failed because it would have duplicated a primary or unique key
+    static boolean isDuplicateKey(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            if (current.getErrorCode() == MYSQL_DUPLICATE_ENTRY || UNIQUE_VIOLATION.equals(current.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,16 +2,46 @@ package jobportal.model;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 import jobportal.DBConnection;
+import jobportal.auth.PasswordHasher;
+import jobportal.cache.BloomFilter;
+import jobportal.search.SkillSet;
 
 public class User {
+    // Probabilistic set of the registered emails this process knows of, so register() can skip the existence
+    // query for emails that are certainly new. Built by loadEmailFilter() and added to by save/saveAll/update;
+    // deleted emails stay in it and only cost a query. Sized with -Djobportal.cache.emails.expected and
+    // -Djobportal.cache.emails.falsePositiveRate; a failed load is retried after -Djobportal.cache.emails.retryMillis
+    private static final KeyFilter emailFilter = new KeyFilter("email filter",
+            Long.getLong("jobportal.cache.emails.expected", 1_000_000L),
+            Double.parseDouble(System.getProperty("jobportal.cache.emails.falsePositiveRate", "0.01")),
+            Long.getLong("jobportal.cache.emails.retryMillis", 30_000L),
+            User::scanEmails);
+
     private int userId;
     private String name;
     private String email;
     private String password;
     private String location;
     private String skills;
+    // Parsed form of skills, built on first use
+    private SkillSet skillSet;
+
+    // Columns read by ROW_MAPPER, in the order it reads them by index
+    static final String COLUMNS = "user_id, name, email, password, location, skills";
+    // Maps a row selected with COLUMNS, reading by position so there are no per-row label lookups
+    static final RowMapper<User> ROW_MAPPER = rs -> new User(
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6)
+    );
 
     // Constructor for new user
     public User(String name, String email, String password, String location, String skills) {
@@ -49,18 +79,55 @@ public class User {
     public void setLocation(String location) { this.location = location; }
 
     public String getSkills() { return skills; }
-    public void setSkills(String skills) { this.skills = skills; }
+    public void setSkills(String skills) {
+        this.skills = skills;
+        this.skillSet = null;
+    }
+
+    public SkillSet getSkillSet() {
+        if (skillSet == null) {
+            skillSet = SkillSet.parse(skills);
+        }
+        return skillSet;
+    }
 
     // Database operations
-    // Create a new user
+    // Create a new user, replacing a plain-text password with its salted hash
     public boolean save() {
-        String sql = "INSERT INTO Users (name, email, password, location, skills) VALUES (?, ?, ?, ?, ?)";
-        Connection conn = null;
-        PreparedStatement stmt = null;
+        try {
+            return insert();
+        } catch (SQLException e) {
+            System.err.println("Error saving user: " + e.getMessage());
+        }
+        return false;
+    }
 
+    // Register a new user in one INSERT, relying on the unique email key to reject a taken email.
+    // Only when the email filter cannot rule the email out is it looked up first, so a taken email
+    // is turned away without paying for the password hash.
+    public SaveResult register() {
+        if (emailExists(email)) {
+            return SaveResult.DUPLICATE;
+        }
         try {
-            conn = DBConnection.getConnection();
-            stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            return insert() ? SaveResult.SAVED : SaveResult.FAILED;
+        } catch (SQLException e) {
+            if (SqlErrors.isDuplicateKey(e)) {
+                rememberEmail(email);
+                return SaveResult.DUPLICATE;
+            }
+            System.err.println("Error registering user: " + e.getMessage());
+        }
+        return SaveResult.FAILED;
+    }
+
+    private boolean insert() throws SQLException {
+        String sql = "INSERT INTO Users (name, email, password, location, skills) VALUES (?, ?, ?, ?, ?)";
+        password = PasswordHasher.hashIfNeeded(password);
+
+        int rowsAffected;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, name);
             stmt.setString(2, email);
@@ -68,39 +135,55 @@ public class User {
             stmt.setString(4, location);
             stmt.setString(5, skills);
 
-            int rowsAffected = stmt.executeUpdate();
+            rowsAffected = stmt.executeUpdate();
             if (rowsAffected > 0) {
                 // Get the auto-generated ID
                 ResultSet rs = stmt.getGeneratedKeys();
                 if (rs.next()) {
                     this.userId = rs.getInt(1);
                 }
-                return true;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error saving user: " + e.getMessage());
-        } finally {
-            // Close statement (connection will remain open for the application's lifecycle)
-            if (stmt != null) {
-                try {
-                    stmt.close();
-                } catch (SQLException e) {
-                    System.err.println("Error closing statement: " + e.getMessage());
-                }
             }
         }
-        return false;
+        if (rowsAffected > 0) {
+            rememberEmail(email);
+        }
+        return rowsAffected > 0;
     }
 
-    // Update existing user
+    // Insert many users with JDBC batches, one transaction per chunk, filling in their generated IDs.
+    // Plain-text passwords are hashed first, in parallel since hashing is deliberately slow.
+    // Returns the number saved; on failure the remaining users are left unsaved.
+    public static int saveAll(Collection<User> users) {
+        return saveAll(users, BatchInsert.DEFAULT_CHUNK_SIZE);
+    }
+
+    public static int saveAll(Collection<User> users, int chunkSize) {
+        String sql = "INSERT INTO Users (name, email, password, location, skills) VALUES (?, ?, ?, ?, ?)";
+        users.parallelStream().forEach(user -> user.password = PasswordHasher.hashIfNeeded(user.password));
+
+        return BatchInsert.execute(sql, users, chunkSize,
+                (stmt, user) -> {
+                    stmt.setString(1, user.name);
+                    stmt.setString(2, user.email);
+                    stmt.setString(3, user.password);
+                    stmt.setString(4, user.location);
+                    stmt.setString(5, user.skills);
+                },
+                (user, id) -> {
+                    user.userId = id;
+                    rememberEmail(user.email);
+                },
+                "users");
+    }
+
+    // Update existing user; a new plain-text password is hashed
     public boolean update() {
         String sql = "UPDATE Users SET name = ?, email = ?, password = ?, location = ?, skills = ? WHERE user_id = ?";
-        Connection conn = null;
-        PreparedStatement stmt = null;
+        password = PasswordHasher.hashIfNeeded(password);
 
-        try {
-            conn = DBConnection.getConnection();
-            stmt = conn.prepareStatement(sql);
+        int rowsAffected = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, name);
             stmt.setString(2, email);
@@ -109,32 +192,22 @@ public class User {
             stmt.setString(5, skills);
             stmt.setInt(6, userId);
 
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+            rowsAffected = stmt.executeUpdate();
         } catch (SQLException e) {
             System.err.println("Error updating user: " + e.getMessage());
-        } finally {
-            // Close statement
-            if (stmt != null) {
-                try {
-                    stmt.close();
-                } catch (SQLException e) {
-                    System.err.println("Error closing statement: " + e.getMessage());
-                }
-            }
         }
-        return false;
+        if (rowsAffected > 0) {
+            rememberEmail(email);
+        }
+        return rowsAffected > 0;
     }
 
     // Delete user
     public boolean delete() {
         String sql = "DELETE FROM Users WHERE user_id = ?";
-        Connection conn = null;
-        PreparedStatement stmt = null;
 
-        try {
-            conn = DBConnection.getConnection();
-            stmt = conn.prepareStatement(sql);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
 
@@ -142,130 +215,86 @@ public class User {
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error deleting user: " + e.getMessage());
-        } finally {
-            // Close statement
-            if (stmt != null) {
-                try {
-                    stmt.close();
-                } catch (SQLException e) {
-                    System.err.println("Error closing statement: " + e.getMessage());
-                }
-            }
         }
         return false;
     }
 
     // Find user by ID
     public static User findById(int userId) {
-        String sql = "SELECT * FROM Users WHERE user_id = ?";
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        String sql = "SELECT " + COLUMNS + " FROM Users WHERE user_id = ?";
 
-        try {
-            conn = DBConnection.getConnection();
-            stmt = conn.prepareStatement(sql);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
-            rs = stmt.executeQuery();
+            ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new User(
-                        rs.getInt("user_id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("location"),
-                        rs.getString("skills")
-                );
+                return ROW_MAPPER.mapRow(rs);
             }
         } catch (SQLException e) {
             System.err.println("Error finding user: " + e.getMessage());
-        } finally {
-            // Close result set and statement
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
-            }
         }
         return null;
     }
 
     // Find user by email
     public static User findByEmail(String email) {
-        String sql = "SELECT * FROM Users WHERE email = ?";
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        String sql = "SELECT " + COLUMNS + " FROM Users WHERE email = ?";
 
-        try {
-            conn = DBConnection.getConnection();
-            stmt = conn.prepareStatement(sql);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, email);
-            rs = stmt.executeQuery();
+            ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new User(
-                        rs.getInt("user_id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("location"),
-                        rs.getString("skills")
-                );
+                return ROW_MAPPER.mapRow(rs);
             }
         } catch (SQLException e) {
             System.err.println("Error finding user by email: " + e.getMessage());
-        } finally {
-            // Close result set and statement
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
-            }
         }
         return null;
     }
 
+    // Whether a user is registered with this email. Emails the email filter rules out are answered without
+    // a query; users inserted by other processes since the filter was loaded are only caught by the unique
+    // key, so use register() rather than checking first.
+    public static boolean emailExists(String email) {
+        BloomFilter filter = emailFilter.get();
+        if (email == null || (filter != null && !filter.mightContain(emailKey(email)))) {
+            return false;
+        }
+        String sql = "SELECT 1 FROM Users WHERE email = ? LIMIT 1";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, email);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next();
+        } catch (SQLException e) {
+            System.err.println("Error checking for email: " + e.getMessage());
+        }
+        return false;
+    }
+
     // Find users by skills
     public static List<User> findBySkills(String skillsToMatch) {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM Users WHERE skills LIKE ?";
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        String sql = "SELECT " + COLUMNS + " FROM Users WHERE skills LIKE ?";
 
-        try {
-            conn = DBConnection.getConnection();
-            stmt = conn.prepareStatement(sql);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, "%" + skillsToMatch + "%");
-            rs = stmt.executeQuery();
+            ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                users.add(new User(
-                        rs.getInt("user_id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("location"),
-                        rs.getString("skills")
-                ));
+                users.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error finding users by skills: " + e.getMessage());
-        } finally {
-            // Close result set and statement
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
-            }
         }
         return users;
     }
@@ -273,77 +302,120 @@ public class User {
     // Get all users
     public static List<User> findAll() {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM Users";
-        Connection conn = null;
-        Statement stmt = null;
-        ResultSet rs = null;
+        String sql = "SELECT " + COLUMNS + " FROM Users";
 
-        try {
-            conn = DBConnection.getConnection();
-            stmt = conn.createStatement();
-            rs = stmt.executeQuery(sql);
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                users.add(new User(
-                        rs.getInt("user_id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("location"),
-                        rs.getString("skills")
-                ));
+                users.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving users: " + e.getMessage());
-        } finally {
-            // Close result set and statement
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
-            }
         }
         return users;
     }
 
-    // Authenticate user
-    public static User authenticate(String email, String password) {
-        String sql = "SELECT * FROM Users WHERE email = ? AND password = ?";
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+    // Get one page of users in user_id order; pass null for the first page
+    public static Page<User> findPage(String cursor, int pageSize) {
+        List<User> users = new ArrayList<>();
+        int size = PageCursor.clampPageSize(pageSize);
+        String sql = "SELECT " + COLUMNS + " FROM Users WHERE user_id > ? ORDER BY user_id LIMIT ?";
 
-        try {
-            conn = DBConnection.getConnection();
-            stmt = conn.prepareStatement(sql);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, email);
-            stmt.setString(2, password);
-            rs = stmt.executeQuery();
+            stmt.setInt(1, PageCursor.decodeId(cursor));
+            stmt.setInt(2, size + 1);
+            ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                return new User(
-                        rs.getInt("user_id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("location"),
-                        rs.getString("skills")
-                );
+            while (rs.next()) {
+                users.add(ROW_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error authenticating user: " + e.getMessage());
-        } finally {
-            // Close result set and statement
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
+            System.err.println("Error retrieving page of users: " + e.getMessage());
+        }
+        return PageCursor.toPage(users, size, item -> PageCursor.encode(item.getUserId()));
+    }
+
+    // Stream all users without loading them into memory; close the stream when done
+    public static Stream<User> streamAll() {
+        return streamAll(QueryStream.DEFAULT_FETCH_SIZE);
+    }
+
+    // Stream all users, fetching fetchSize rows per round trip
+    public static Stream<User> streamAll(int fetchSize) {
+        String sql = "SELECT " + COLUMNS + " FROM Users";
+        return QueryStream.of(sql, stmt -> { }, ROW_MAPPER, fetchSize);
+    }
+
+    // Build the email filter from all users, replacing any existing filter. The table is scanned without
+    // blocking writers, which add their emails to both the old and the new filter meanwhile.
+    public static boolean loadEmailFilter() {
+        return emailFilter.load();
+    }
+
+    // Get the email filter, loading it on first use; null while it is loading or could not be loaded
+    public static BloomFilter getEmailFilter() {
+        return emailFilter.get();
+    }
+
+    private static void scanEmails(BloomFilter filter) throws SQLException {
+        String sql = "SELECT email FROM Users";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                String email = rs.getString(1);
+                if (email != null) {
+                    filter.add(emailKey(email));
+                }
             }
         }
-        return null;
+    }
+
+    private static void rememberEmail(String email) {
+        if (email != null) {
+            emailFilter.add(emailKey(email));
+        }
+    }
+
+    // The email unique key compares case-insensitively under MySQL's default collation, so the filter does too
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    // Authenticate user by email and password hash. Unknown emails take as long as wrong passwords.
+    // A plain-text password from before hashing, or a hash with too few iterations, is re-hashed on success.
+    public static User authenticate(String email, String password) {
+        User user = findByEmail(email);
+        if (!PasswordHasher.verify(password, user != null ? user.password : null)) {
+            return null;
+        }
+        if (PasswordHasher.needsRehash(user.password)) {
+            user.updatePasswordHash(PasswordHasher.hash(password));
+        }
+        return user;
+    }
+
+    // Store a new hash of this user's password, e.g. one upgraded at login
+    public void updatePasswordHash(String hash) {
+        String sql = "UPDATE Users SET password = ? WHERE user_id = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, hash);
+            stmt.setInt(2, userId);
+            if (stmt.executeUpdate() > 0) {
+                this.password = hash;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error upgrading password hash: " + e.getMessage());
+        }
     }
 
     @Override
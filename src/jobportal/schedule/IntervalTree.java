@@ -0,0 +1,262 @@
+package jobportal.schedule;
+
+import java.util.List;
+
+/**
+ * Half-open time intervals [start, end) with an id each, in an AVL tree ordered by start and id.
+ * Every node also holds the latest end in its subtree, so overlap queries skip whole subtrees
+ * that end before the query starts and run in O(log n + matches).
+ * Not thread-safe; {@link InterviewScheduler} guards access.
+ */
+final class IntervalTree {
+    private Node root;
+    private int size;
+
+    private static final class Node {
+        private final long start;
+        private final long end;
+        private final int id;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long start, long end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Height of the tree, 0 when empty
+    int height() {
+        return height(root);
+    }
+
+    // Throws IllegalStateException if ordering, balance, heights or maxEnd are inconsistent; for tests
+    void checkInvariants() {
+        if (check(root, null) != size) {
+            throw new IllegalStateException("size is " + size + " but the tree holds a different number of nodes");
+        }
+    }
+
+    // Returns the number of nodes under node, all of which must sort after lowerBound
+    private static int check(Node node, Node lowerBound) {
+        if (node == null) {
+            return 0;
+        }
+        int count = check(node.left, lowerBound);
+        if (lowerBound != null && compare(node.start, node.id, lowerBound) <= 0) {
+            throw new IllegalStateException("node " + node.id + " is out of order");
+        }
+        Node rightmost = node.left;
+        while (rightmost != null && rightmost.right != null) {
+            rightmost = rightmost.right;
+        }
+        if (rightmost != null && compare(node.start, node.id, rightmost) <= 0) {
+            throw new IllegalStateException("node " + node.id + " sorts before its left subtree");
+        }
+        count += 1 + check(node.right, node);
+        if (node.height != 1 + Math.max(height(node.left), height(node.right))) {
+            throw new IllegalStateException("node " + node.id + " has a stale height");
+        }
+        if (Math.abs(height(node.left) - height(node.right)) > 1) {
+            throw new IllegalStateException("node " + node.id + " is unbalanced");
+        }
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        if (node.maxEnd != maxEnd) {
+            throw new IllegalStateException("node " + node.id + " has a stale maxEnd");
+        }
+        return count;
+    }
+
+    void add(long start, long end, int id) {
+        root = insert(root, start, end, id);
+        size++;
+    }
+
+    // Remove the interval added with this start and id; returns false if there is none
+    boolean remove(long start, int id) {
+        int before = size;
+        root = delete(root, start, id);
+        return size < before;
+    }
+
+    // Ids of all intervals overlapping [start, end), except ignoreId
+    void findOverlapping(long start, long end, int ignoreId, List<Integer> out) {
+        collect(root, start, end, ignoreId, out);
+    }
+
+    /**
+     * Any interval overlapping [start, end) other than ignoreId, as its end time.
+     *
+     * @return The end of an overlapping interval, or -1 if there is none
+     */
+    long anyOverlapEnd(long start, long end, int ignoreId) {
+        return anyOverlapEnd(root, start, end, ignoreId);
+    }
+
+    /**
+     * The earliest start at or after notBefore at which [start, start + length) overlaps nothing.
+     */
+    long nextFree(long notBefore, long length, int ignoreId) {
+        long candidate = notBefore;
+        while (true) {
+            long blockedUntil = anyOverlapEnd(candidate, candidate + length, ignoreId);
+            if (blockedUntil < 0) {
+                return candidate;
+            }
+            // Every start before the overlapping interval ends would still overlap it
+            candidate = blockedUntil;
+        }
+    }
+
+    private static long anyOverlapEnd(Node node, long start, long end, int ignoreId) {
+        if (node == null || node.maxEnd <= start) {
+            return -1;
+        }
+        long found = anyOverlapEnd(node.left, start, end, ignoreId);
+        if (found >= 0) {
+            return found;
+        }
+        if (node.start >= end) {
+            return -1;
+        }
+        if (node.end > start && node.id != ignoreId) {
+            return node.end;
+        }
+        return anyOverlapEnd(node.right, start, end, ignoreId);
+    }
+
+    private static void collect(Node node, long start, long end, int ignoreId, List<Integer> out) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, ignoreId, out);
+        if (node.start >= end) {
+            return;
+        }
+        if (node.end > start && node.id != ignoreId) {
+            out.add(node.id);
+        }
+        collect(node.right, start, end, ignoreId, out);
+    }
+
+    private static int compare(long start, int id, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Integer.compare(id, node.id);
+    }
+
+    private Node insert(Node node, long start, long end, int id) {
+        if (node == null) {
+            return new Node(start, end, id);
+        }
+        if (compare(start, id, node) < 0) {
+            node.left = insert(node.left, start, end, id);
+        } else {
+            node.right = insert(node.right, start, end, id);
+        }
+        return rebalance(node);
+    }
+
+    private Node delete(Node node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace with the in-order successor
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.start, successor.end, successor.id);
+            replacement.left = node.left;
+            replacement.right = removeMin(node.right);
+            return rebalance(replacement);
+        }
+        return rebalance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void refresh(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node rebalance(Node node) {
+        refresh(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        refresh(node);
+        refresh(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        refresh(node);
+        refresh(pivot);
+        return pivot;
+    }
+}
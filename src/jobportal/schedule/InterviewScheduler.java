@@ -0,0 +1,211 @@
+package jobportal.schedule;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory calendar of interview bookings, one {@link IntervalTree} per resource
+ * (each interviewer and each room), answering conflict and next-free-slot queries in
+ * O(log n) without scanning the Interviews table.
+ * Bookings are half-open: an interview ending at 10:00 does not conflict with one starting at 10:00.
+ * Interviewer and room names are matched ignoring case; a null resource is not checked.
+ * Queries share a read lock; bookings and cancellations take the write lock.
+ */
+public class InterviewScheduler {
+    private final Map<String, IntervalTree> trees = new HashMap<>();
+    private final Map<Integer, Booking> bookings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Booking {
+        private final long start;
+        private final long end;
+        private final String interviewerKey;
+        private final String roomKey;
+
+        private Booking(long start, long end, String interviewerKey, String roomKey) {
+            this.start = start;
+            this.end = end;
+            this.interviewerKey = interviewerKey;
+            this.roomKey = roomKey;
+        }
+    }
+
+    /**
+     * Add or replace the booking of an interview.
+     *
+     * @param interviewId Interview id
+     * @param interviewer Interviewer name, or null if none is assigned
+     * @param room Room name, or null if none is assigned
+     * @param start Start time
+     * @param end End time, after start
+     */
+    public void book(int interviewId, String interviewer, String room, Timestamp start, Timestamp end) {
+        long startMillis = start.getTime();
+        long endMillis = end.getTime();
+        checkInterval(startMillis, endMillis);
+        Booking booking = new Booking(startMillis, endMillis, interviewerKey(interviewer), roomKey(room));
+
+        lock.writeLock().lock();
+        try {
+            removeBooking(bookings.remove(interviewId), interviewId);
+            bookings.put(interviewId, booking);
+            addTo(booking.interviewerKey, booking, interviewId);
+            addTo(booking.roomKey, booking, interviewId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the booking of an interview; unknown ids are ignored.
+     */
+    public void cancel(int interviewId) {
+        lock.writeLock().lock();
+        try {
+            removeBooking(bookings.remove(interviewId), interviewId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The interviews that would clash with a booking of the interviewer and room.
+     *
+     * @param ignoreInterviewId Interview to leave out, e.g. the one being moved; 0 for none
+     * @return Ids of the clashing interviews, each listed once
+     */
+    public List<Integer> findConflicts(String interviewer, String room, Timestamp start, Timestamp end,
+                                       int ignoreInterviewId) {
+        long startMillis = start.getTime();
+        long endMillis = end.getTime();
+        checkInterval(startMillis, endMillis);
+        List<Integer> conflicts = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            IntervalTree interviewerTree = tree(interviewerKey(interviewer));
+            if (interviewerTree != null) {
+                interviewerTree.findOverlapping(startMillis, endMillis, ignoreInterviewId, conflicts);
+            }
+            IntervalTree roomTree = tree(roomKey(room));
+            if (roomTree != null) {
+                List<Integer> roomConflicts = new ArrayList<>();
+                roomTree.findOverlapping(startMillis, endMillis, ignoreInterviewId, roomConflicts);
+                for (Integer id : roomConflicts) {
+                    if (!conflicts.contains(id)) {
+                        conflicts.add(id);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return conflicts;
+    }
+
+    public boolean isFree(String interviewer, String room, Timestamp start, Timestamp end, int ignoreInterviewId) {
+        long startMillis = start.getTime();
+        long endMillis = end.getTime();
+        checkInterval(startMillis, endMillis);
+
+        lock.readLock().lock();
+        try {
+            return isFree(tree(interviewerKey(interviewer)), startMillis, endMillis, ignoreInterviewId)
+                    && isFree(tree(roomKey(room)), startMillis, endMillis, ignoreInterviewId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The earliest time at or after notBefore when both the interviewer and the room are free for
+     * the given length.
+     */
+    public Timestamp findNextFreeSlot(String interviewer, String room, Timestamp notBefore, Duration length) {
+        long lengthMillis = length.toMillis();
+        if (lengthMillis <= 0) {
+            throw new IllegalArgumentException("length must be positive: " + length);
+        }
+
+        lock.readLock().lock();
+        try {
+            IntervalTree interviewerTree = tree(interviewerKey(interviewer));
+            IntervalTree roomTree = tree(roomKey(room));
+            long candidate = notBefore.getTime();
+            // Alternate between the two calendars until both are free at the same time; each step only moves later
+            while (true) {
+                long interviewerFree = interviewerTree != null ? interviewerTree.nextFree(candidate, lengthMillis, 0) : candidate;
+                long roomFree = roomTree != null ? roomTree.nextFree(interviewerFree, lengthMillis, 0) : interviewerFree;
+                if (roomFree == interviewerFree) {
+                    return new Timestamp(roomFree);
+                }
+                candidate = roomFree;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of booked interviews
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bookings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isFree(IntervalTree tree, long start, long end, int ignoreInterviewId) {
+        return tree == null || tree.anyOverlapEnd(start, end, ignoreInterviewId) < 0;
+    }
+
+    private IntervalTree tree(String key) {
+        return key != null ? trees.get(key) : null;
+    }
+
+    private void addTo(String key, Booking booking, int interviewId) {
+        if (key != null) {
+            trees.computeIfAbsent(key, k -> new IntervalTree()).add(booking.start, booking.end, interviewId);
+        }
+    }
+
+    private void removeBooking(Booking booking, int interviewId) {
+        if (booking == null) {
+            return;
+        }
+        removeFrom(booking.interviewerKey, booking, interviewId);
+        removeFrom(booking.roomKey, booking, interviewId);
+    }
+
+    private void removeFrom(String key, Booking booking, int interviewId) {
+        IntervalTree tree = tree(key);
+        if (tree != null) {
+            tree.remove(booking.start, interviewId);
+            if (tree.size() == 0) {
+                trees.remove(key);
+            }
+        }
+    }
+
+    private static void checkInterval(long start, long end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("end must be after start");
+        }
+    }
+
+    private static String interviewerKey(String interviewer) {
+        return interviewer == null || interviewer.isBlank() ? null : "interviewer:" + interviewer.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String roomKey(String room) {
+        return room == null || room.isBlank() ? null : "room:" + room.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,34 @@
+package jobportal.search;
+
+/**
+ * A scored match between a user and a job posting, identified by the id of the other side.
+ */
+public final class Match implements Comparable<Match> {
+    private final int id;
+    private final double score;
+
+    public Match(int id, double score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    // Job ID when ranking jobs for a user, user ID when ranking candidates for a job
+    public int getId() { return id; }
+
+    public double getScore() { return score; }
+
+    // Better matches sort first; equal scores fall back to the lower id
+    @Override
+    public int compareTo(Match other) {
+        int byScore = Double.compare(other.score, score);
+        return byScore != 0 ? byScore : Integer.compare(id, other.id);
+    }
+
+    @Override
+    public String toString() {
+        return "Match{" +
+                "id=" + id +
+                ", score=" + String.format("%.3f", score) +
+                '}';
+    }
+}
@@ -0,0 +1,477 @@
+package jobportal.search;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import jobportal.DBConnection;
+
+/**
+ * Ranks job postings for users and users for job postings.
+ * <p>
+ * The engine works on an immutable in-memory snapshot of both sides: ids, {@link SkillSet}s,
+ * normalized locations and a per-skill inverted index. A candidate is anything that shares at
+ * least one skill; it is scored by the share of the job's required skills the user has, plus a
+ * location affinity bonus. Only the best K matches are kept, in a bounded heap, so no full score
+ * list is ever materialized. Large candidate sets and batch runs are split across a fork-join pool.
+ */
+public class MatchEngine {
+    private static final double SKILL_WEIGHT = 0.8;
+    private static final double LOCATION_WEIGHT = 0.2;
+    private static final String REMOTE = "remote";
+    // Below this many candidates (or users/jobs in batch mode) a task runs sequentially
+    private static final int SEQUENTIAL_THRESHOLD = 4_096;
+    private static final int BATCH_THRESHOLD = 256;
+    // Candidate buffers kept per side for concurrent queries; more concurrent queries allocate their own
+    private static final int QUERY_SCRATCH_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    private final ForkJoinPool pool;
+    private final Side jobs;
+    private final Side users;
+
+    private MatchEngine(ForkJoinPool pool, Side jobs, Side users) {
+        this.pool = pool;
+        this.jobs = jobs;
+        this.users = users;
+    }
+
+    /**
+     * Load a snapshot of all job postings and users from the database.
+     *
+     * @param pool Fork-join pool to run on, e.g. {@link ForkJoinPool#commonPool()}
+     * @return The engine, or null if the corpus could not be loaded
+     */
+    public static MatchEngine load(ForkJoinPool pool) {
+        Builder builder = new Builder();
+        String jobSql = "SELECT job_id, location, skills_required FROM Job_Postings";
+        String userSql = "SELECT user_id, location, skills FROM Users";
+
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(jobSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    builder.addJob(rs.getInt(1), rs.getString(2), rs.getString(3));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(userSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    builder.addUser(rs.getInt(1), rs.getString(2), rs.getString(3));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading match corpus: " + e.getMessage());
+            return null;
+        }
+        return builder.build(pool);
+    }
+
+    /**
+     * Collects the corpus for a {@link MatchEngine}.
+     */
+    public static class Builder {
+        private final Side.Builder jobs = new Side.Builder();
+        private final Side.Builder users = new Side.Builder();
+
+        public Builder addJob(int jobId, String location, String skillsRequired) {
+            jobs.add(jobId, location, SkillSet.parse(skillsRequired));
+            return this;
+        }
+
+        public Builder addUser(int userId, String location, String skills) {
+            users.add(userId, location, SkillSet.parse(skills));
+            return this;
+        }
+
+        public MatchEngine build(ForkJoinPool pool) {
+            return new MatchEngine(pool, jobs.build(), users.build());
+        }
+    }
+
+    public int jobCount() { return jobs.ids.length; }
+
+    public int userCount() { return users.ids.length; }
+
+    /**
+     * Best job postings for a user in the snapshot.
+     *
+     * @return Up to k matches, best first; empty if the user is unknown
+     */
+    public List<Match> bestJobsForUser(int userId, int k) {
+        Integer index = users.indexById.get(userId);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        return bestJobsFor(users.skills[index], users.locations[index], k);
+    }
+
+    /**
+     * Best job postings for an arbitrary skill set and location, e.g. a user who just signed up.
+     *
+     * @return Up to k matches, best first
+     */
+    public List<Match> bestJobsFor(SkillSet skills, String location, int k) {
+        return rank(skills, normalizeLocation(location), jobs, true, k);
+    }
+
+    /**
+     * Best candidates for a job posting in the snapshot.
+     *
+     * @return Up to k matches, best first; empty if the job is unknown
+     */
+    public List<Match> bestCandidatesForJob(int jobId, int k) {
+        Integer index = jobs.indexById.get(jobId);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        return bestCandidatesFor(jobs.skills[index], jobs.locations[index], k);
+    }
+
+    /**
+     * Best candidates for an arbitrary required skill set and location.
+     *
+     * @return Up to k matches, best first
+     */
+    public List<Match> bestCandidatesFor(SkillSet skillsRequired, String location, int k) {
+        return rank(skillsRequired, normalizeLocation(location), users, false, k);
+    }
+
+    /**
+     * Batch mode: compute the best k jobs for every user in the snapshot.
+     * Users are processed in parallel, so the sink must be thread-safe.
+     *
+     * @param sink Receives each user ID with its matches, best first; users without matches are skipped
+     */
+    public void matchAllUsers(int k, BiConsumer<Integer, List<Match>> sink) {
+        pool.invoke(new BatchTask(users, jobs, true, k, sink, 0, users.ids.length));
+    }
+
+    /**
+     * Batch mode: compute the best k candidates for every job posting in the snapshot.
+     * Jobs are processed in parallel, so the sink must be thread-safe.
+     *
+     * @param sink Receives each job ID with its matches, best first; jobs without matches are skipped
+     */
+    public void matchAllJobs(int k, BiConsumer<Integer, List<Match>> sink) {
+        pool.invoke(new BatchTask(jobs, users, false, k, sink, 0, jobs.ids.length));
+    }
+
+    private List<Match> rank(SkillSet skills, String location, Side targets, boolean targetsAreJobs, int k) {
+        if (k <= 0 || skills.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Not the thread's batch scratch: a pool worker calling this may run batch leaves while it waits below
+        Scratch scratch = targets.borrowScratch();
+        try {
+            int count = targets.collectCandidates(skills, scratch);
+            int[] candidates = scratch.candidates;
+
+            TopK top;
+            if (count < SEQUENTIAL_THRESHOLD) {
+                top = scoreRange(skills, location, targets, targetsAreJobs, candidates, 0, count, k);
+            } else {
+                top = pool.invoke(new RankTask(skills, location, targets, targetsAreJobs, candidates, 0, count, k));
+            }
+            return top.toSortedList();
+        } finally {
+            targets.returnScratch(scratch);
+        }
+    }
+
+    private static TopK scoreRange(SkillSet skills, String location, Side targets, boolean targetsAreJobs,
+                                   int[] candidates, int from, int to, int k) {
+        TopK top = new TopK(k);
+        for (int i = from; i < to; i++) {
+            int target = candidates[i];
+            double score = targetsAreJobs
+                    ? score(skills, location, targets.skills[target], targets.locations[target])
+                    : score(targets.skills[target], targets.locations[target], skills, location);
+            top.offer(targets.ids[target], score);
+        }
+        return top;
+    }
+
+    // Share of the job's required skills the user has, plus a location affinity bonus
+    static double score(SkillSet userSkills, String userLocation, SkillSet jobSkills, String jobLocation) {
+        if (jobSkills.isEmpty()) {
+            return 0.0;
+        }
+        double coverage = (double) userSkills.intersectionSize(jobSkills) / jobSkills.size();
+        return SKILL_WEIGHT * coverage + LOCATION_WEIGHT * locationAffinity(userLocation, jobLocation);
+    }
+
+    private static double locationAffinity(String userLocation, String jobLocation) {
+        if (userLocation == null || jobLocation == null) {
+            return 0.0;
+        }
+        if (userLocation.equals(jobLocation)) {
+            return 1.0;
+        }
+        return REMOTE.equals(jobLocation) || REMOTE.equals(userLocation) ? 0.5 : 0.0;
+    }
+
+    private static String normalizeLocation(String location) {
+        if (location == null) {
+            return null;
+        }
+        String normalized = location.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * One side of the corpus, stored column-wise, with an inverted index from skill id to entity index.
+     */
+    private static final class Side {
+        private final int[] ids;
+        private final SkillSet[] skills;
+        private final String[] locations;
+        private final int[][] bySkill;
+        private final Map<Integer, Integer> indexById;
+        // Candidate buffers for batch leaves, one per pool worker
+        private final ThreadLocal<Scratch> batchScratch;
+        // Idle candidate buffers for queries, which may run on short-lived threads
+        private final ArrayBlockingQueue<Scratch> queryScratch = new ArrayBlockingQueue<>(QUERY_SCRATCH_POOL_SIZE);
+
+        private Side(int[] ids, SkillSet[] skills, String[] locations) {
+            this.ids = ids;
+            this.skills = skills;
+            this.locations = locations;
+            this.batchScratch = ThreadLocal.withInitial(() -> new Scratch(ids.length));
+            this.indexById = new HashMap<>(ids.length * 2);
+            for (int i = 0; i < ids.length; i++) {
+                indexById.put(ids[i], i);
+            }
+
+            // Two passes over the skill sets: count postings per skill, then fill exact-size arrays
+            int[] counts = new int[SkillDictionary.size()];
+            for (SkillSet set : skills) {
+                for (int skill : set.ids()) {
+                    counts[skill]++;
+                }
+            }
+            bySkill = new int[counts.length][];
+            for (int skill = 0; skill < counts.length; skill++) {
+                bySkill[skill] = new int[counts[skill]];
+            }
+            int[] fill = new int[counts.length];
+            for (int i = 0; i < skills.length; i++) {
+                for (int skill : skills[i].ids()) {
+                    bySkill[skill][fill[skill]++] = i;
+                }
+            }
+        }
+
+        // An idle query scratch, or a new one if every pooled one is in use
+        private Scratch borrowScratch() {
+            Scratch scratch = queryScratch.poll();
+            return scratch != null ? scratch : new Scratch(ids.length);
+        }
+
+        // Keep the scratch for the next query unless the pool is full
+        private void returnScratch(Scratch scratch) {
+            queryScratch.offer(scratch);
+        }
+
+        // Gather the indexes of all entities sharing at least one skill into scratch.candidates
+        private int collectCandidates(SkillSet query, Scratch scratch) {
+            int stamp = scratch.nextStamp();
+            int count = 0;
+            for (int skill : query.ids()) {
+                if (skill >= bySkill.length) {
+                    continue;
+                }
+                for (int index : bySkill[skill]) {
+                    if (scratch.seen[index] != stamp) {
+                        scratch.seen[index] = stamp;
+                        scratch.candidates[count++] = index;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private static final class Builder {
+            private final List<Integer> ids = new ArrayList<>();
+            private final List<SkillSet> skills = new ArrayList<>();
+            private final List<String> locations = new ArrayList<>();
+
+            private void add(int id, String location, SkillSet skillSet) {
+                ids.add(id);
+                skills.add(skillSet);
+                locations.add(normalizeLocation(location));
+            }
+
+            private Side build() {
+                int[] idArray = ids.stream().mapToInt(Integer::intValue).toArray();
+                return new Side(idArray, skills.toArray(new SkillSet[0]), locations.toArray(new String[0]));
+            }
+        }
+    }
+
+    /**
+     * Candidate buffers sized to one side of the corpus.
+     */
+    private static final class Scratch {
+        private final int[] seen;
+        private final int[] candidates;
+        private int stamp = 0;
+
+        private Scratch(int size) {
+            this.seen = new int[size];
+            this.candidates = new int[size];
+        }
+
+        private int nextStamp() {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(seen, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+
+    /**
+     * A bounded min-heap that keeps the k best matches seen so far.
+     */
+    private static final class TopK {
+        private final int k;
+        private final PriorityQueue<Match> heap;
+
+        private TopK(int k) {
+            this.k = k;
+            // Worst match at the head
+            this.heap = new PriorityQueue<>(Math.min(k, 1_024) + 1, Collections.reverseOrder());
+        }
+
+        private void offer(int id, double score) {
+            if (score <= 0.0) {
+                return;
+            }
+            if (heap.size() < k) {
+                heap.add(new Match(id, score));
+                return;
+            }
+            Match worst = heap.peek();
+            if (score > worst.getScore() || (score == worst.getScore() && id < worst.getId())) {
+                heap.poll();
+                heap.add(new Match(id, score));
+            }
+        }
+
+        private TopK merge(TopK other) {
+            for (Match match : other.heap) {
+                offer(match.getId(), match.getScore());
+            }
+            return this;
+        }
+
+        private List<Match> toSortedList() {
+            List<Match> matches = new ArrayList<>(heap);
+            Collections.sort(matches);
+            return matches;
+        }
+    }
+
+    /**
+     * Scores a slice of one query's candidates, splitting until slices are small.
+     */
+    @SuppressWarnings("serial") // Serializable only through ForkJoinTask; never serialized
+    private static final class RankTask extends RecursiveTask<TopK> {
+        private final SkillSet skills;
+        private final String location;
+        private final Side targets;
+        private final boolean targetsAreJobs;
+        private final int[] candidates;
+        private final int from;
+        private final int to;
+        private final int k;
+
+        private RankTask(SkillSet skills, String location, Side targets, boolean targetsAreJobs,
+                         int[] candidates, int from, int to, int k) {
+            this.skills = skills;
+            this.location = location;
+            this.targets = targets;
+            this.targetsAreJobs = targetsAreJobs;
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return scoreRange(skills, location, targets, targetsAreJobs, candidates, from, to, k);
+            }
+            int mid = (from + to) >>> 1;
+            RankTask left = new RankTask(skills, location, targets, targetsAreJobs, candidates, from, mid, k);
+            RankTask right = new RankTask(skills, location, targets, targetsAreJobs, candidates, mid, to, k);
+            left.fork();
+            TopK rightTop = right.compute();
+            return left.join().merge(rightTop);
+        }
+    }
+
+    /**
+     * Ranks targets for a slice of sources, splitting until slices are small.
+     */
+    @SuppressWarnings("serial") // Serializable only through ForkJoinTask; never serialized
+    private static final class BatchTask extends RecursiveAction {
+        private final Side sources;
+        private final Side targets;
+        private final boolean targetsAreJobs;
+        private final int k;
+        private final BiConsumer<Integer, List<Match>> sink;
+        private final int from;
+        private final int to;
+
+        private BatchTask(Side sources, Side targets, boolean targetsAreJobs, int k,
+                          BiConsumer<Integer, List<Match>> sink, int from, int to) {
+            this.sources = sources;
+            this.targets = targets;
+            this.targetsAreJobs = targetsAreJobs;
+            this.k = k;
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(sources, targets, targetsAreJobs, k, sink, from, mid),
+                        new BatchTask(sources, targets, targetsAreJobs, k, sink, mid, to));
+                return;
+            }
+            // Leaves never fork, so the worker's scratch cannot be reused underneath us
+            Scratch scratch = targets.batchScratch.get();
+            for (int source = from; source < to; source++) {
+                SkillSet skills = sources.skills[source];
+                if (skills.isEmpty()) {
+                    continue;
+                }
+                int count = targets.collectCandidates(skills, scratch);
+                TopK top = scoreRange(skills, sources.locations[source], targets, targetsAreJobs,
+                        scratch.candidates, 0, count, k);
+                List<Match> matches = top.toSortedList();
+                if (!matches.isEmpty()) {
+                    sink.accept(sources.ids[source], matches);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package jobportal.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary that interns each distinct normalized skill name to a small
+ * integer id. Ids are dense and assigned in first-seen order, so they can be used
+ * directly as bit positions in a {@link SkillSet}.
+ */
+public class SkillDictionary {
+    private static final Map<String, Integer> idsBySkill = new ConcurrentHashMap<>();
+    private static final List<String> skillsById = new ArrayList<>();
+
+    private SkillDictionary() {
+    }
+
+    /**
+     * Split a comma or semicolon separated skill list into normalized skill names.
+     * Names are trimmed, lower-cased, have inner whitespace collapsed and are de-duplicated.
+     *
+     * @param skills Free-form skill list such as "Java, Spring, SQL"
+     * @return Distinct names in their original order
+     */
+    public static List<String> tokenize(String skills) {
+        if (skills == null || skills.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String part : skills.split("[,;]")) {
+            String token = normalize(part);
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Normalize a single skill name.
+     */
+    public static String normalize(String skill) {
+        return skill.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get the id of a skill, assigning a new one if the skill has not been seen before.
+     *
+     * @param skill Skill name, normalized or not
+     * @return The skill id
+     */
+    public static int intern(String skill) {
+        String token = normalize(skill);
+        Integer id = idsBySkill.get(token);
+        if (id != null) {
+            return id;
+        }
+        synchronized (skillsById) {
+            return idsBySkill.computeIfAbsent(token, t -> {
+                skillsById.add(t);
+                return skillsById.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Get the id of a known skill without assigning one, e.g. for search terms.
+     *
+     * @return The skill id, or -1 if the skill is unknown
+     */
+    public static int lookup(String skill) {
+        Integer id = idsBySkill.get(normalize(skill));
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get the normalized name of a skill id.
+     */
+    public static String nameOf(int id) {
+        synchronized (skillsById) {
+            return skillsById.get(id);
+        }
+    }
+
+    public static int size() {
+        return idsBySkill.size();
+    }
+}
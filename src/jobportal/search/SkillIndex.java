@@ -0,0 +1,177 @@
+package jobportal.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory inverted index from skill id (see {@link SkillDictionary}) to the ids of
+ * the entities (e.g. job postings) that list that skill.
+ * Skills are matched as whole normalized names, so "Java" does not match "JavaScript".
+ * Reads are lock-free; writes are serialized so an entity's skills and postings stay in step.
+ */
+public class SkillIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Integer, Set<Integer>> postings = new ConcurrentHashMap<>();
+    private final Map<Integer, SkillSet> skillsById = new ConcurrentHashMap<>();
+
+    /**
+     * Add or replace the skills of an entity.
+     *
+     * @param id Entity id
+     * @param skills Free-form skill list
+     */
+    public void index(int id, String skills) {
+        index(id, SkillSet.parse(skills));
+    }
+
+    /**
+     * Add or replace the skills of an entity.
+     *
+     * @param id Entity id
+     * @param skills The entity's skills
+     */
+    public synchronized void index(int id, SkillSet skills) {
+        remove(id);
+        if (skills.isEmpty()) {
+            return;
+        }
+        skillsById.put(id, skills);
+        for (int skill : skills.ids()) {
+            postings.computeIfAbsent(skill, s -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Remove an entity from the index.
+     */
+    public synchronized void remove(int id) {
+        SkillSet skills = skillsById.remove(id);
+        if (skills == null) {
+            return;
+        }
+        for (int skill : skills.ids()) {
+            Set<Integer> ids = postings.get(skill);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(skill);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the indexed skills of an entity.
+     *
+     * @return The skills, or {@link SkillSet#EMPTY} if the entity is not indexed
+     */
+    public SkillSet skillsOf(int id) {
+        SkillSet skills = skillsById.get(id);
+        return skills != null ? skills : SkillSet.EMPTY;
+    }
+
+    /**
+     * Find the entities that have every skill in the query.
+     *
+     * @param skills Free-form skill list
+     * @return Matching ids in ascending order
+     */
+    public int[] searchAll(String skills) {
+        SkillSet query = SkillSet.parseKnown(skills);
+        return query != null ? searchAll(query) : EMPTY;
+    }
+
+    /**
+     * Find the entities that have every skill in the query.
+     *
+     * @return Matching ids in ascending order
+     */
+    public int[] searchAll(SkillSet query) {
+        List<Set<Integer>> lists = new ArrayList<>();
+        for (int skill : query.ids()) {
+            Set<Integer> ids = postings.get(skill);
+            if (ids == null) {
+                return EMPTY;
+            }
+            lists.add(ids);
+        }
+        if (lists.isEmpty()) {
+            return EMPTY;
+        }
+
+        // Walk the shortest posting list and probe the others
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        int[] result = new int[lists.get(0).size()];
+        int count = 0;
+        outer:
+        for (Integer id : lists.get(0)) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    continue outer;
+                }
+            }
+            if (count == result.length) {
+                result = Arrays.copyOf(result, count * 2 + 1);
+            }
+            result[count++] = id;
+        }
+        result = Arrays.copyOf(result, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Find the entities that have at least one skill in the query.
+     *
+     * @param skills Free-form skill list
+     * @return Matching ids in ascending order
+     */
+    public int[] searchAny(String skills) {
+        // Unknown skills cannot match anything, so leave them out instead of interning them
+        int[] known = SkillDictionary.tokenize(skills).stream()
+                .mapToInt(SkillDictionary::lookup)
+                .filter(id -> id >= 0)
+                .toArray();
+        return searchAny(SkillSet.of(known));
+    }
+
+    /**
+     * Find the entities that have at least one skill in the query.
+     *
+     * @return Matching ids in ascending order
+     */
+    public int[] searchAny(SkillSet query) {
+        Set<Integer> matches = new HashSet<>();
+        for (int skill : query.ids()) {
+            Set<Integer> ids = postings.get(skill);
+            if (ids != null) {
+                matches.addAll(ids);
+            }
+        }
+        int[] result = new int[matches.size()];
+        int i = 0;
+        for (Integer id : matches) {
+            result[i++] = id;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    public int size() { return skillsById.size(); }
+
+    public int skillCount() { return postings.size(); }
+
+    @Override
+    public String toString() {
+        return "SkillIndex{" +
+                "entries=" + skillsById.size() +
+                ", skills=" + postings.size() +
+                '}';
+    }
+}
@@ -0,0 +1,225 @@
+package jobportal.search;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of skill ids from the {@link SkillDictionary}.
+ * Sets whose ids are small for their size are stored as a bitset, so set operations work a
+ * 64-bit word at a time with popcount and comparing the skills of a user and a job costs a
+ * handful of machine instructions. Sets that would need a long, mostly empty bitset, such as a
+ * couple of skills interned late in a large dictionary, are stored as a sorted id array instead.
+ * The form depends only on the ids, so equal sets always have the same form.
+ */
+public final class SkillSet {
+    public static final SkillSet EMPTY = new SkillSet(new long[0], null, 0);
+
+    // A set is a bitset if that takes at most this many words, or no more words than the set has ids
+    private static final int SMALL_WORDS = 4;
+
+    // The bitset, or null if the set is stored in ids
+    private final long[] words;
+    // Sorted distinct ids, or null if the set is stored in words
+    private final int[] sorted;
+    private final int size;
+
+    private SkillSet(long[] words, int[] sorted, int size) {
+        this.words = words;
+        this.sorted = sorted;
+        this.size = size;
+    }
+
+    /**
+     * Parse a free-form skill list, interning any new skills in the dictionary.
+     *
+     * @param skills Comma or semicolon separated skills such as "Java, Spring, SQL"
+     * @return The skill set, {@link #EMPTY} if there are no skills
+     */
+    public static SkillSet parse(String skills) {
+        int[] ids = SkillDictionary.tokenize(skills).stream().mapToInt(SkillDictionary::intern).toArray();
+        return of(ids);
+    }
+
+    /**
+     * Parse a skill list without interning, e.g. a search query.
+     *
+     * @param skills Comma or semicolon separated skills
+     * @return The skill set, or null if any skill is unknown to the dictionary and so cannot match anything
+     */
+    public static SkillSet parseKnown(String skills) {
+        int[] ids = SkillDictionary.tokenize(skills).stream().mapToInt(SkillDictionary::lookup).toArray();
+        for (int id : ids) {
+            if (id < 0) {
+                return null;
+            }
+        }
+        return of(ids);
+    }
+
+    public static SkillSet of(int... ids) {
+        if (ids.length == 0) {
+            return EMPTY;
+        }
+        int[] distinct = ids.clone();
+        Arrays.sort(distinct);
+        int size = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[size++] = distinct[i];
+            }
+        }
+        int wordCount = (distinct[size - 1] >>> 6) + 1;
+        if (wordCount > Math.max(SMALL_WORDS, size)) {
+            return new SkillSet(null, Arrays.copyOf(distinct, size), size);
+        }
+        long[] words = new long[wordCount];
+        for (int i = 0; i < size; i++) {
+            words[distinct[i] >>> 6] |= 1L << distinct[i];
+        }
+        return new SkillSet(words, null, size);
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int id) {
+        if (words == null) {
+            return Arrays.binarySearch(sorted, id) >= 0;
+        }
+        int word = id >>> 6;
+        return id >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    // Number of skills present in both sets
+    public int intersectionSize(SkillSet other) {
+        if (words != null && other.words != null) {
+            long[] a = words;
+            long[] b = other.words;
+            int n = Math.min(a.length, b.length);
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                count += Long.bitCount(a[i] & b[i]);
+            }
+            return count;
+        }
+        if (words == null && other.words == null) {
+            // Merge the two sorted arrays
+            int[] a = sorted;
+            int[] b = other.sorted;
+            int count = 0;
+            for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+        SkillSet array = words == null ? this : other;
+        SkillSet bits = words == null ? other : this;
+        int count = 0;
+        for (int id : array.sorted) {
+            if (bits.contains(id)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean intersects(SkillSet other) {
+        if (words != null && other.words != null) {
+            int n = Math.min(words.length, other.words.length);
+            for (int i = 0; i < n; i++) {
+                if ((words[i] & other.words[i]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        SkillSet array = words == null ? this : other;
+        SkillSet probed = array == this ? other : this;
+        for (int id : array.sorted) {
+            if (probed.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean containsAll(SkillSet other) {
+        if (other.size > size) {
+            return false;
+        }
+        if (words != null && other.words != null) {
+            long[] b = other.words;
+            for (int i = 0; i < b.length; i++) {
+                long mine = i < words.length ? words[i] : 0L;
+                if ((b[i] & ~mine) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (int id : other.words == null ? other.sorted : other.ids()) {
+            if (!contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Skill ids in ascending order
+    public int[] ids() {
+        if (words == null) {
+            return sorted.clone();
+        }
+        int[] ids = new int[size];
+        int n = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                ids[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SkillSet)) return false;
+        SkillSet other = (SkillSet) o;
+        return size == other.size && containsAll(other);
+    }
+
+    @Override
+    public int hashCode() {
+        if (words == null) {
+            return Arrays.hashCode(sorted);
+        }
+        // Ignore trailing zero words so equal sets hash alike regardless of array length
+        int end = words.length;
+        while (end > 0 && words[end - 1] == 0) {
+            end--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, end));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int id : ids()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(SkillDictionary.nameOf(id));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,383 @@
+package jobportal.web;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import jobportal.DBConnection;
+import jobportal.async.AsyncDao;
+import jobportal.auth.SessionStore;
+import jobportal.io.JsonLines;
+import jobportal.metrics.QueryMetrics;
+import jobportal.model.Application;
+import jobportal.model.ApplicationStatus;
+import jobportal.model.ApplicationSummary;
+import jobportal.model.JobListing;
+import jobportal.model.JobPosting;
+import jobportal.model.Page;
+import jobportal.model.SaveResult;
+import jobportal.model.User;
+
+/**
+ * HTTP JSON API for the portal flows, on the JDK's built-in server.
+ * <p>
+ * Every request runs on its own virtual thread, so thousands of concurrent sessions cost
+ * little more than their sockets; database work goes through {@link AsyncDao}, which caps
+ * concurrent queries at the connection pool size. Endpoints:
+ * <pre>
+ * POST /api/login          {"email": ..., "password": ...} -> {"token": ..., "userId": ..., "name": ...}
+ * POST /api/logout
+ * GET  /api/jobs           [?skills=... | ?location=...] [&amp;cursor=...] [&amp;size=...] -> {"items": [...], "nextCursor": ...}
+ * POST /api/applications   {"jobId": ...}
+ * GET  /api/applications
+ * GET  /api/interviews
+ * GET  /metrics            query statistics in the Prometheus text format
+ * </pre>
+ * All endpoints except login and jobs need an {@code Authorization: Bearer <token>} header.
+ */
+public class ApiServer implements AutoCloseable {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AsyncDao dao;
+    // Logged-in users by bearer token, so authenticated requests need no user lookup
+    private final SessionStore sessions = new SessionStore();
+
+    /**
+     * A request that cannot be served, reported to the client with the given status.
+     */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        // Returns the response status and JSON body
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static final class Response {
+        private final int status;
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    public ApiServer(InetSocketAddress address, AsyncDao dao) throws IOException {
+        this.dao = dao;
+        this.server = HttpServer.create(address, 1_024);
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("jobportal-http-", 0).factory());
+        server.setExecutor(executor);
+
+        route("/api/login", "POST", this::login);
+        route("/api/logout", "POST", this::logout);
+        route("/api/jobs", "GET", this::jobs);
+        server.createContext("/api/applications", exchange -> dispatch(exchange,
+                "POST".equals(exchange.getRequestMethod()) ? this::apply : this::applications, "GET", "POST"));
+        route("/api/interviews", "GET", this::interviews);
+        server.createContext("/metrics", this::metrics);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stop accepting requests, give running ones a second to finish, then stop.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    private void route(String path, String method, Route route) {
+        server.createContext(path, exchange -> dispatch(exchange, route, method));
+    }
+
+    private void dispatch(HttpExchange exchange, Route route, String... methods) throws IOException {
+        Response response;
+        try {
+            if (!isExactPath(exchange)) {
+                throw new ApiException(404, "Not found");
+            }
+            if (!List.of(methods).contains(exchange.getRequestMethod())) {
+                throw new ApiException(405, "Method not allowed");
+            }
+            response = route.handle(exchange);
+        } catch (ApiException e) {
+            response = new Response(e.status, Json.error(e.getMessage()));
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            System.err.println("Error handling " + exchange.getRequestURI() + ": " + cause.getMessage());
+            response = new Response(500, Json.error("Internal error"));
+        }
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (response.body == null) {
+                exchange.sendResponseHeaders(response.status, -1);
+            } else {
+                byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(response.status, bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    // Contexts match by prefix, so /api/jobs would also receive /api/jobsXYZ and /api/jobs/1
+    private static boolean isExactPath(HttpExchange exchange) {
+        return exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath());
+    }
+
+    // Routes
+    private Response login(HttpExchange exchange) throws IOException {
+        Map<String, String> body = readBody(exchange);
+        String email = body.get("email");
+        String password = body.get("password");
+        if (email == null || password == null) {
+            throw new ApiException(400, "email and password are required");
+        }
+
+        User user = dao.authenticate(email, password).join();
+        if (user == null) {
+            throw new ApiException(401, "Invalid email or password");
+        }
+        String token = sessions.create(user);
+        return new Response(200, new Json().beginObject()
+                .field("token", token)
+                .field("userId", user.getUserId())
+                .field("name", user.getName())
+                .endObject().toString());
+    }
+
+    private Response logout(HttpExchange exchange) {
+        sessions.invalidate(bearerToken(exchange));
+        return new Response(204, null);
+    }
+
+    private Response jobs(HttpExchange exchange) {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String skills = query.get("skills");
+        String location = query.get("location");
+        String cursor = query.get("cursor");
+        int size = parseInt(query.getOrDefault("size", String.valueOf(DEFAULT_PAGE_SIZE)), "size");
+
+        // Searches are paged like browsing, so a broad search cannot return the whole table
+        Page<JobListing> page;
+        try {
+            if (skills != null) {
+                page = dao.searchJobPageBySkills(skills, cursor, size).join();
+            } else if (location != null) {
+                page = dao.searchJobPageByLocation(location, cursor, size).join();
+            } else {
+                page = dao.findJobPage(cursor, size).join();
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw new ApiException(400, e.getCause().getMessage());
+            }
+            throw e;
+        }
+        return new Response(200, new Json().beginObject()
+                .array("items", page.getItems(), ApiServer::writeListing)
+                .field("nextCursor", page.getNextCursor())
+                .endObject().toString());
+    }
+
+    private Response apply(HttpExchange exchange) throws IOException {
+        int userId = requireUser(exchange);
+        String jobIdText = readBody(exchange).get("jobId");
+        if (jobIdText == null) {
+            throw new ApiException(400, "jobId is required");
+        }
+        int jobId = parseInt(jobIdText, "jobId");
+
+        // Same checks as JobPortalApp.applyForJob; the duplicate check is part of the insert
+        if (dao.findJobById(jobId).join() == null) {
+            throw new ApiException(404, "Job not found with ID: " + jobId);
+        }
+
+        Application application = new Application(jobId, userId, new Date(System.currentTimeMillis()), ApplicationStatus.PENDING.getLabel());
+        SaveResult result = dao.apply(application).join();
+        if (result == SaveResult.DUPLICATE) {
+            throw new ApiException(409, "You have already applied for this job");
+        } else if (result != SaveResult.SAVED) {
+            throw new ApiException(500, "Failed to submit application");
+        }
+        return new Response(201, new Json().beginObject()
+                .field("applicationId", application.getApplicationId())
+                .field("jobId", jobId)
+                .field("status", application.getStatus())
+                .endObject().toString());
+    }
+
+    private Response applications(HttpExchange exchange) {
+        int userId = requireUser(exchange);
+        List<ApplicationSummary> summaries = dao.findApplicationSummaries(userId).join();
+        return new Response(200, new Json().beginObject()
+                .array("items", summaries, (json, summary) -> json.beginObject()
+                        .field("applicationId", summary.getApplicationId())
+                        .field("jobId", summary.getJobId())
+                        .field("jobTitle", summary.getJobTitle())
+                        .field("companyName", summary.getCompanyName())
+                        .field("applicationDate", summary.getApplicationDate())
+                        .field("status", summary.getStatus())
+                        .field("hasInterview", summary.hasInterview())
+                        .endObject())
+                .endObject().toString());
+    }
+
+    private Response interviews(HttpExchange exchange) {
+        int userId = requireUser(exchange);
+        List<ApplicationSummary> summaries = dao.findApplicationSummaries(userId).join();
+        summaries.removeIf(summary -> !summary.hasInterview());
+        return new Response(200, new Json().beginObject()
+                .array("items", summaries, (json, summary) -> json.beginObject()
+                        .field("interviewId", summary.getInterviewId())
+                        .field("applicationId", summary.getApplicationId())
+                        .field("jobTitle", summary.getJobTitle())
+                        .field("companyName", summary.getCompanyName())
+                        .field("scheduledDate", summary.getInterviewDate())
+                        .field("status", summary.getInterviewStatus())
+                        .endObject())
+                .endObject().toString());
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        if (!isExactPath(exchange)) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = QueryMetrics.text().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(200, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static void writeListing(Json json, JobListing listing) {
+        json.beginObject()
+                .field("jobId", listing.getJobId())
+                .field("title", listing.getTitle())
+                .field("companyName", listing.getCompanyName())
+                .field("location", listing.getLocation())
+                .field("skillsRequired", listing.getSkillsRequired())
+                .field("datePosted", listing.getDatePosted())
+                .endObject();
+    }
+
+    // Sessions
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+
+    private int requireUser(HttpExchange exchange) {
+        User user = sessions.resolve(bearerToken(exchange));
+        if (user == null) {
+            throw new ApiException(401, "Login required");
+        }
+        return user.getUserId();
+    }
+
+    // Request parsing
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new ApiException(413, "Request body too large");
+        }
+        try {
+            return JsonLines.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Invalid JSON: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        try {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                params.putIfAbsent(name, value);
+            }
+        } catch (IllegalArgumentException e) {
+            // A malformed % escape
+            throw new ApiException(400, "Invalid query string");
+        }
+        return params;
+    }
+
+    private static int parseInt(String text, String name) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, name + " must be a number");
+        }
+    }
+
+    /**
+     * Start the server on {@code -Djobportal.http.port} (default 8080) until the process is stopped.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("jobportal.http.port", 8080);
+
+        DBConnection.initialize();
+        JobPosting.loadSkillIndex();
+        Application.loadAppliedFilter();
+        AsyncDao dao = new AsyncDao();
+        ApiServer server = new ApiServer(new InetSocketAddress(port), dao);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            dao.close();
+            DBConnection.closeConnection();
+        }));
+        server.start();
+        System.out.println("Job Portal API listening on port " + server.getAddress().getPort());
+    }
+}
@@ -0,0 +1,98 @@
+package jobportal.web;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import jobportal.io.JsonLines;
+
+/**
+ * Small append-only JSON writer for API responses.
+ */
+final class Json {
+    private final StringBuilder out = new StringBuilder(256);
+    // Whether the next value in the current object or array needs a leading comma
+    private boolean needsComma = false;
+
+    Json beginObject() {
+        separate();
+        out.append('{');
+        needsComma = false;
+        return this;
+    }
+
+    Json endObject() {
+        out.append('}');
+        needsComma = true;
+        return this;
+    }
+
+    Json name(String name) {
+        separate();
+        JsonLines.appendString(out, name);
+        out.append(':');
+        needsComma = false;
+        return this;
+    }
+
+    Json value(String value) {
+        separate();
+        JsonLines.appendString(out, value);
+        needsComma = true;
+        return this;
+    }
+
+    Json value(long value) {
+        separate();
+        out.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    Json value(boolean value) {
+        separate();
+        out.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    // Dates and other values written as their string form, or null
+    Json value(Object value) {
+        return value(value == null ? null : value.toString());
+    }
+
+    Json field(String name, String value) { return name(name).value(value); }
+
+    Json field(String name, long value) { return name(name).value(value); }
+
+    Json field(String name, boolean value) { return name(name).value(value); }
+
+    Json field(String name, Object value) { return name(name).value(value); }
+
+    // Write an array with one element per item
+    <T> Json array(String name, Collection<T> items, BiConsumer<Json, T> element) {
+        name(name);
+        out.append('[');
+        needsComma = false;
+        for (T item : items) {
+            element.accept(this, item);
+        }
+        out.append(']');
+        needsComma = true;
+        return this;
+    }
+
+    private void separate() {
+        if (needsComma) {
+            out.append(',');
+        }
+    }
+
+    // {"error": message}
+    static String error(String message) {
+        return new Json().beginObject().field("error", message).endObject().toString();
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
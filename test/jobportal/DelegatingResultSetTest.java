@@ -0,0 +1,23 @@
+package jobportal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import org.junit.jupiter.api.Test;
+
+class DelegatingResultSetTest {
+
+    @Test
+    void forwardsEveryResultSetMethod() throws NoSuchMethodException {
+        // Including the default methods, which would otherwise throw instead of reaching the driver
+        for (Method method : ResultSet.class.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            Method override = DelegatingResultSet.class.getMethod(method.getName(), method.getParameterTypes());
+            assertEquals(DelegatingResultSet.class, override.getDeclaringClass(), method.toString());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package jobportal.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long key = 0; key < 10_000; key++) {
+            filter.add(key * 7919);
+            filter.add("user" + key + "@example.com");
+        }
+        for (long key = 0; key < 10_000; key++) {
+            assertTrue(filter.mightContain(key * 7919), "long key " + key);
+            assertTrue(filter.mightContain("user" + key + "@example.com"), "string key " + key);
+        }
+        assertEquals(20_000, filter.getAdditions());
+    }
+
+    @Test
+    void falsePositiveRateIsNearTarget() {
+        double target = 0.01;
+        BloomFilter filter = new BloomFilter(100_000, target);
+        for (long key = 0; key < 100_000; key++) {
+            filter.add(key);
+        }
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (long key = 1_000_000; key < 1_000_000 + probes; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / probes;
+        // Rounding the bit array up to whole words only lowers the rate, so allow a little either side
+        assertTrue(measured < target * 1.5, "measured " + measured);
+        assertTrue(measured > target / 4, "measured " + measured);
+        assertEquals(target, filter.getFalsePositiveRate(), target / 2);
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        int threads = 8;
+        int keysPerThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long first = (long) t * keysPerThread;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Neighbouring keys share words, so the threads race on the same longs
+                for (long key = first; key < first + keysPerThread; key++) {
+                    filter.add(key);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (long key = 0; key < (long) threads * keysPerThread; key++) {
+            assertTrue(filter.mightContain(key), "key " + key);
+        }
+        assertEquals((long) threads * keysPerThread, filter.getAdditions());
+    }
+
+    @Test
+    void clearForgetsKeys() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        filter.add(42L);
+        filter.clear();
+        assertEquals(0, filter.getAdditions());
+        assertTrue(!filter.mightContain(42L));
+    }
+}
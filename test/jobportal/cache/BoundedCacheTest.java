@@ -0,0 +1,52 @@
+package jobportal.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(2, 0);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.get(1);
+        cache.put(3, "three");
+
+        assertEquals("one", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("three", cache.get(3));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void putIfNotInvalidatedStoresWhenNothingWasInvalidated() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(10, 0);
+        long generation = cache.generation();
+        cache.put(2, "two");
+
+        assertTrue(cache.putIfNotInvalidated(1, "one", generation));
+        assertEquals("one", cache.get(1));
+    }
+
+    @Test
+    void putIfNotInvalidatedSkipsLoadsThatRacedWithAnInvalidation() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(10, 0);
+        long generation = cache.generation();
+        // A write commits and invalidates while the value is being loaded
+        cache.invalidate(1);
+
+        assertFalse(cache.putIfNotInvalidated(1, "stale", generation));
+        assertNull(cache.get(1));
+
+        long later = cache.generation();
+        cache.invalidateAll();
+        assertFalse(cache.putIfNotInvalidated(1, "stale", later));
+        assertTrue(cache.putIfNotInvalidated(1, "fresh", cache.generation()));
+        assertEquals("fresh", cache.get(1));
+    }
+}
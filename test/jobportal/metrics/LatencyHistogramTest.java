@@ -0,0 +1,129 @@
+package jobportal.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(99));
+        assertEquals(0, histogram.getMeanNanos());
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 50; value++) {
+            histogram.record(value);
+        }
+        assertEquals(25, histogram.getPercentileNanos(50));
+        assertEquals(50, histogram.getPercentileNanos(100));
+        assertEquals(1, histogram.getPercentileNanos(0));
+        assertEquals(25.5, histogram.getMeanNanos(), 1e-9);
+    }
+
+    @Test
+    void percentilesOfUniformValuesAreWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        assertWithinError(500_000_000L, histogram.getPercentileNanos(50));
+        assertWithinError(990_000_000L, histogram.getPercentileNanos(99));
+        assertWithinError(999_000_000L, histogram.getPercentileNanos(99.9));
+        assertEquals(1_000_000_000L, histogram.getPercentileNanos(100));
+        assertEquals(1_000_000_000L, histogram.getMaxNanos());
+    }
+
+    @Test
+    void percentilesOfSkewedValuesMatchExactRanks() {
+        Random random = new Random(3);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Mostly fast with a long tail, like real query latencies
+            values[i] = (long) (200_000 * Math.exp(random.nextGaussian() * 1.5));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            assertWithinError(exact, histogram.getPercentileNanos(percentile));
+        }
+    }
+
+    @Test
+    void reportedValueNeverUnderstatesItsBucket() {
+        for (long value = 0; value < 1_000_000; value += 37) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(upper >= value, "value " + value + " upper " + upper);
+            assertTrue(upper - value <= value / 32, "value " + value + " upper " + upper);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void addMergesAndResetClears() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            a.record(value * 1_000);
+            b.record(value * 1_000_000);
+        }
+        a.add(b);
+        assertEquals(200, a.getCount());
+        assertEquals(100_000_000L, a.getMaxNanos());
+        assertWithinError(100_000L, a.getPercentileNanos(50));
+        assertWithinError(1_000_000L, a.getPercentileNanos(50.5));
+
+        a.reset();
+        assertEquals(0, a.getCount());
+        assertEquals(0, a.getMaxNanos());
+        assertEquals(0, a.getPercentileNanos(50));
+    }
+
+    @Test
+    void concurrentRecordsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (long value = 1; value <= 50_000; value++) {
+                    histogram.record(value);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(50_000, histogram.getMaxNanos());
+        assertWithinError(25_000, histogram.getPercentileNanos(50));
+    }
+
+    // Reported percentiles are bucket upper bounds: never below the true value, at most 1/32 above it
+    private static void assertWithinError(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 32,
+                "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,86 @@
+package jobportal.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import jobportal.cache.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+class KeyFilterTest {
+
+    @Test
+    void failedLoadIsNotRetriedBeforeRetryTime() {
+        AtomicInteger scans = new AtomicInteger();
+        KeyFilter filter = new KeyFilter("test filter", 1_000, 0.01, 60_000, f -> {
+            scans.incrementAndGet();
+            throw new SQLException("database down");
+        });
+        assertNull(filter.get());
+        assertNull(filter.get());
+        assertNull(filter.get());
+        assertEquals(1, scans.get());
+        // An explicit load still runs
+        assertFalse(filter.load());
+        assertEquals(2, scans.get());
+    }
+
+    @Test
+    void failedLoadIsRetriedAfterRetryTime() throws InterruptedException {
+        AtomicInteger scans = new AtomicInteger();
+        KeyFilter filter = new KeyFilter("test filter", 1_000, 0.01, 20, f -> {
+            if (scans.incrementAndGet() == 1) {
+                throw new SQLException("database down");
+            }
+            f.add(7L);
+        });
+        assertNull(filter.get());
+        Thread.sleep(50);
+        BloomFilter loaded = filter.get();
+        assertNotNull(loaded);
+        assertTrue(loaded.mightContain(7L));
+        assertEquals(2, scans.get());
+    }
+
+    @Test
+    void writesDuringLoadReachBothFilters() throws InterruptedException {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        AtomicInteger scans = new AtomicInteger();
+        KeyFilter filter = new KeyFilter("test filter", 1_000, 0.01, 60_000, f -> {
+            f.add(1L);
+            if (scans.incrementAndGet() == 2) {
+                scanning.countDown();
+                try {
+                    written.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(filter.load());
+        BloomFilter old = filter.get();
+
+        Thread reload = new Thread(filter::load);
+        reload.start();
+        scanning.await();
+        // The writer neither waits for the scan nor is lost when the new filter replaces the old one
+        filter.add(2L);
+        filter.add("key");
+        assertTrue(old.mightContain(2L));
+        assertTrue(old.mightContain("key"));
+        written.countDown();
+        reload.join();
+
+        BloomFilter reloaded = filter.get();
+        assertTrue(reloaded != old);
+        assertTrue(reloaded.mightContain(1L));
+        assertTrue(reloaded.mightContain(2L));
+        assertTrue(reloaded.mightContain("key"));
+    }
+}
@@ -0,0 +1,38 @@
+package jobportal.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Date;
+import org.junit.jupiter.api.Test;
+
+class PageCursorTest {
+
+    @Test
+    void dateKeyRoundTrips() {
+        PageCursor.DateKey key = PageCursor.decodeDateKey(PageCursor.encode(Date.valueOf("2024-03-01"), 17));
+        assertEquals(Date.valueOf("2024-03-01"), key.date);
+        assertEquals(17, key.id);
+    }
+
+    @Test
+    void undatedKeyRoundTrips() {
+        PageCursor.DateKey key = PageCursor.decodeDateKey(PageCursor.encode(null, 5));
+        assertNull(key.date);
+        assertEquals(5, key.id);
+    }
+
+    @Test
+    void idRoundTrips() {
+        assertEquals(42, PageCursor.decodeId(PageCursor.encode(42)));
+        assertEquals(0, PageCursor.decodeId(null));
+    }
+
+    @Test
+    void rejectsForeignCursors() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decodeDateKey(PageCursor.encode(42)));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decodeId(PageCursor.encode(null, 5)));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decodeId("%%%"));
+    }
+}
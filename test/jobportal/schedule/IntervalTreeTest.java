@@ -0,0 +1,140 @@
+package jobportal.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTest {
+
+    @Test
+    void staysBalancedUnderAscendingInserts() {
+        IntervalTree tree = new IntervalTree();
+        for (int i = 1; i <= 1_000; i++) {
+            tree.add(i * 10L, i * 10L + 5, i);
+            tree.checkInvariants();
+        }
+        // An AVL tree of n nodes is at most about 1.44 log2(n) high; a plain BST would be 1000 high
+        assertTrue(tree.height() <= 14, "height " + tree.height());
+    }
+
+    @Test
+    void staysBalancedUnderDescendingInsertsAndRemovals() {
+        IntervalTree tree = new IntervalTree();
+        for (int i = 1_000; i >= 1; i--) {
+            tree.add(i, i + 1, i);
+        }
+        for (int i = 1; i <= 900; i++) {
+            assertTrue(tree.remove(i, i));
+            tree.checkInvariants();
+        }
+        assertEquals(100, tree.size());
+        assertTrue(tree.height() <= 9, "height " + tree.height());
+    }
+
+    @Test
+    void maxEndFollowsRemovalOfTheLongestInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(0, 1_000, 1);
+        for (int i = 2; i <= 20; i++) {
+            tree.add(i * 10L, i * 10L + 1, i);
+        }
+        assertEquals(List.of(1), overlapping(tree, 900, 950));
+
+        assertTrue(tree.remove(0, 1));
+        tree.checkInvariants();
+        assertEquals(List.of(), overlapping(tree, 900, 950));
+        assertEquals(-1, tree.anyOverlapEnd(900, 950, 0));
+    }
+
+    @Test
+    void removeNodeWithTwoChildrenKeepsTheRest() {
+        IntervalTree tree = new IntervalTree();
+        // Built so that 40 ends up with both subtrees populated
+        long[] starts = {40, 20, 60, 10, 30, 50, 70, 55};
+        for (long start : starts) {
+            tree.add(start, start + 5, (int) start);
+        }
+        assertTrue(tree.remove(40, 40));
+        tree.checkInvariants();
+        assertEquals(7, tree.size());
+        assertEquals(List.of(10, 20, 30, 50, 55, 60, 70), overlapping(tree, 0, 100));
+        assertFalse(tree.remove(40, 40));
+    }
+
+    @Test
+    void halfOpenIntervalsDoNotOverlapAtTheirEnds() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(100, 200, 1);
+        assertEquals(List.of(), overlapping(tree, 200, 300));
+        assertEquals(List.of(), overlapping(tree, 0, 100));
+        assertEquals(List.of(1), overlapping(tree, 199, 300));
+        assertEquals(List.of(), overlappingIgnoring(tree, 150, 160, 1));
+    }
+
+    @Test
+    void nextFreeSkipsChainedIntervals() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(100, 200, 1);
+        tree.add(200, 300, 2);
+        tree.add(350, 400, 3);
+        assertEquals(0, tree.nextFree(0, 100, 0));
+        assertEquals(50, tree.nextFree(50, 50, 0));
+        assertEquals(300, tree.nextFree(150, 50, 0));
+        assertEquals(400, tree.nextFree(50, 60, 0));
+        // Ignoring the interval being moved frees its own time
+        assertEquals(100, tree.nextFree(100, 100, 1));
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomChanges() {
+        Random random = new Random(7);
+        IntervalTree tree = new IntervalTree();
+        Map<Integer, long[]> live = new HashMap<>();
+        for (int step = 0; step < 5_000; step++) {
+            if (!live.isEmpty() && random.nextInt(3) == 0) {
+                int id = new ArrayList<>(live.keySet()).get(random.nextInt(live.size()));
+                assertTrue(tree.remove(live.remove(id)[0], id));
+            } else {
+                long start = random.nextInt(10_000);
+                long end = start + 1 + random.nextInt(500);
+                tree.add(start, end, step + 1);
+                live.put(step + 1, new long[] {start, end});
+            }
+            if (step % 100 == 0) {
+                tree.checkInvariants();
+            }
+
+            long queryStart = random.nextInt(10_000);
+            long queryEnd = queryStart + 1 + random.nextInt(300);
+            List<Integer> expected = new ArrayList<>();
+            for (Map.Entry<Integer, long[]> entry : live.entrySet()) {
+                if (entry.getValue()[0] < queryEnd && entry.getValue()[1] > queryStart) {
+                    expected.add(entry.getKey());
+                }
+            }
+            List<Integer> actual = overlapping(tree, queryStart, queryEnd);
+            expected.sort(null);
+            actual.sort(null);
+            assertEquals(expected, actual);
+            assertEquals(expected.isEmpty(), tree.anyOverlapEnd(queryStart, queryEnd, 0) < 0);
+        }
+        assertEquals(live.size(), tree.size());
+    }
+
+    private static List<Integer> overlapping(IntervalTree tree, long start, long end) {
+        return overlappingIgnoring(tree, start, end, 0);
+    }
+
+    private static List<Integer> overlappingIgnoring(IntervalTree tree, long start, long end, int ignoreId) {
+        List<Integer> ids = new ArrayList<>();
+        tree.findOverlapping(start, end, ignoreId, ids);
+        return ids;
+    }
+}
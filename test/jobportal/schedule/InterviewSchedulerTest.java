@@ -0,0 +1,88 @@
+package jobportal.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InterviewSchedulerTest {
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY_START = 1_700_000_000_000L;
+
+    private static Timestamp at(double hours) {
+        return new Timestamp(DAY_START + (long) (hours * HOUR));
+    }
+
+    @Test
+    void nextFreeSlotWhenNothingIsBooked() {
+        InterviewScheduler scheduler = new InterviewScheduler();
+        assertEquals(at(9), scheduler.findNextFreeSlot("Ann", "Room 1", at(9), Duration.ofHours(1)));
+    }
+
+    @Test
+    void nextFreeSlotWaitsForTheInterviewer() {
+        InterviewScheduler scheduler = new InterviewScheduler();
+        scheduler.book(1, "Ann", null, at(9), at(10));
+        scheduler.book(2, "Ann", null, at(10), at(11));
+        assertEquals(at(11), scheduler.findNextFreeSlot("Ann", "Room 1", at(9), Duration.ofHours(1)));
+        // Another interviewer is free straight away
+        assertEquals(at(9), scheduler.findNextFreeSlot("Bob", "Room 1", at(9), Duration.ofHours(1)));
+    }
+
+    @Test
+    void nextFreeSlotAlternatesBetweenInterviewerAndRoom() {
+        InterviewScheduler scheduler = new InterviewScheduler();
+        scheduler.book(1, "Ann", "Room 2", at(9), at(10));
+        scheduler.book(2, "Bob", "Room 1", at(10), at(11));
+        scheduler.book(3, "Ann", "Room 3", at(11), at(11.5));
+        // Ann is free at 10 but Room 1 is not; Room 1 is free at 11 but Ann is not until 11:30
+        assertEquals(at(11.5), scheduler.findNextFreeSlot("Ann", "Room 1", at(9), Duration.ofHours(1)));
+    }
+
+    @Test
+    void nextFreeSlotFitsGapsThatAreLongEnough() {
+        InterviewScheduler scheduler = new InterviewScheduler();
+        scheduler.book(1, "Ann", null, at(9), at(10));
+        scheduler.book(2, "Ann", null, at(10.5), at(12));
+        assertEquals(at(10), scheduler.findNextFreeSlot("Ann", null, at(9), Duration.ofMinutes(30)));
+        assertEquals(at(12), scheduler.findNextFreeSlot("Ann", null, at(9), Duration.ofMinutes(45)));
+    }
+
+    @Test
+    void namesMatchIgnoringCaseAndCancelledSlotsAreFree() {
+        InterviewScheduler scheduler = new InterviewScheduler();
+        scheduler.book(1, "Ann", "Room 1", at(9), at(10));
+        assertEquals(List.of(1), scheduler.findConflicts(" ann ", null, at(9.5), at(10.5), 0));
+        assertEquals(List.of(1), scheduler.findConflicts(null, "ROOM 1", at(9.5), at(10.5), 0));
+        assertFalse(scheduler.isFree("Ann", "Room 1", at(9.5), at(10.5), 0));
+
+        scheduler.cancel(1);
+        assertTrue(scheduler.isFree("Ann", "Room 1", at(9.5), at(10.5), 0));
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void rebookingMovesTheSlot() {
+        InterviewScheduler scheduler = new InterviewScheduler();
+        scheduler.book(1, "Ann", "Room 1", at(9), at(10));
+        scheduler.book(1, "Ann", "Room 1", at(14), at(15));
+        assertTrue(scheduler.isFree("Ann", "Room 1", at(9), at(10), 0));
+        assertEquals(List.of(1), scheduler.findConflicts("Ann", "Room 1", at(14), at(15), 0));
+        // A conflict reported by both the interviewer and the room is listed once
+        assertEquals(1, scheduler.findConflicts("Ann", "Room 1", at(14), at(15), 0).size());
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    void rejectsEmptyIntervals() {
+        InterviewScheduler scheduler = new InterviewScheduler();
+        assertThrows(IllegalArgumentException.class, () -> scheduler.book(1, "Ann", null, at(10), at(10)));
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.findNextFreeSlot("Ann", null, at(9), Duration.ZERO));
+    }
+}
@@ -0,0 +1,147 @@
+package jobportal.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MatchEngineTest {
+    private static final String[] SKILLS = {"Java", "SQL", "Python", "Docker", "Kotlin", "React", "Go", "AWS"};
+    private static final String[] LOCATIONS = {"remote", "berlin", "paris"};
+
+    // Enough jobs that common skills exceed the sequential threshold and ranking forks
+    private static final int JOBS = 12_000;
+    private static final int USERS = 200;
+
+    private final String[] jobSkills = new String[JOBS];
+    private final String[] jobLocations = new String[JOBS];
+    private final String[] userSkills = new String[USERS];
+    private final String[] userLocations = new String[USERS];
+    private final List<List<Match>> expected = new ArrayList<>();
+    private ForkJoinPool pool;
+    private MatchEngine engine;
+
+    @BeforeEach
+    void buildEngine() {
+        Random random = new Random(11);
+        MatchEngine.Builder builder = new MatchEngine.Builder();
+        for (int job = 0; job < JOBS; job++) {
+            jobSkills[job] = randomSkills(random);
+            jobLocations[job] = LOCATIONS[random.nextInt(LOCATIONS.length)];
+            builder.addJob(job + 1, jobLocations[job], jobSkills[job]);
+        }
+        for (int user = 0; user < USERS; user++) {
+            userSkills[user] = randomSkills(random);
+            userLocations[user] = LOCATIONS[random.nextInt(LOCATIONS.length)];
+            builder.addUser(user + 1, userLocations[user], userSkills[user]);
+        }
+        pool = new ForkJoinPool(4);
+        engine = builder.build(pool);
+
+        for (int user = 0; user < USERS; user++) {
+            expected.add(bruteForce(userSkills[user], userLocations[user], jobSkills, jobLocations, 10));
+        }
+    }
+
+    @AfterEach
+    void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void repeatedAndConcurrentQueriesMatchBruteForce() throws Exception {
+        // Callers reuse pooled scratch buffers across queries
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(callers.submit(() -> {
+                    for (int round = 0; round < 2; round++) {
+                        for (int user = 0; user < USERS; user++) {
+                            assertSameMatches(expected.get(user), engine.bestJobsForUser(user + 1, 10));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    // A query on a pool worker may run stolen batch leaves, which use that worker's scratch, while it waits
+    @Test
+    void queriesOnPoolWorkersMatchBruteForceDuringBatchRuns() throws Exception {
+        Map<Integer, List<Match>> batch = new ConcurrentHashMap<>();
+        ForkJoinTask<?> batchRun = pool.submit(() -> engine.matchAllUsers(10, batch::put));
+        List<ForkJoinTask<?>> queries = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            queries.add(pool.submit(() -> {
+                for (int user = 0; user < USERS; user++) {
+                    assertSameMatches(expected.get(user), engine.bestJobsForUser(user + 1, 10));
+                }
+            }));
+        }
+        for (ForkJoinTask<?> query : queries) {
+            query.get();
+        }
+        batchRun.get();
+
+        for (int user = 0; user < USERS; user++) {
+            List<Match> matches = batch.get(user + 1);
+            assertSameMatches(expected.get(user), matches != null ? matches : List.of());
+        }
+    }
+
+    private static String randomSkills(Random random) {
+        int count = 1 + random.nextInt(3);
+        StringBuilder skills = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                skills.append(", ");
+            }
+            skills.append(SKILLS[random.nextInt(SKILLS.length)]);
+        }
+        return skills.toString();
+    }
+
+    private static List<Match> bruteForce(String skills, String location, String[] jobSkills, String[] jobLocations,
+                                          int k) {
+        SkillSet user = SkillSet.parse(skills);
+        List<Match> all = new ArrayList<>();
+        for (int job = 0; job < jobSkills.length; job++) {
+            SkillSet required = SkillSet.parse(jobSkills[job]);
+            if (!user.intersects(required)) {
+                continue;
+            }
+            double score = MatchEngine.score(user, location, required, jobLocations[job]);
+            if (score > 0) {
+                all.add(new Match(job + 1, score));
+            }
+        }
+        all.sort(null);
+        return all.subList(0, Math.min(k, all.size()));
+    }
+
+    private static void assertSameMatches(List<Match> expected, List<Match> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getScore(), actual.get(i).getScore(), 1e-12);
+        }
+    }
+}
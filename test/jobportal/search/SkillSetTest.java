@@ -0,0 +1,77 @@
+package jobportal.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class SkillSetTest {
+
+    @Test
+    void keepsDuplicatesAndOrderOut() {
+        SkillSet set = SkillSet.of(5, 3, 5, 1);
+        assertEquals(3, set.size());
+        assertArrayEquals(new int[] {1, 3, 5}, set.ids());
+        assertEquals(SkillSet.EMPTY, SkillSet.of());
+    }
+
+    @Test
+    void sparseSetsWithLargeIdsStayCorrect() {
+        SkillSet sparse = SkillSet.of(100_000, 3);
+        assertEquals(2, sparse.size());
+        assertTrue(sparse.contains(100_000));
+        assertTrue(sparse.contains(3));
+        assertFalse(sparse.contains(4));
+        assertFalse(sparse.contains(-1));
+        assertArrayEquals(new int[] {3, 100_000}, sparse.ids());
+
+        SkillSet dense = SkillSet.of(1, 2, 3);
+        assertEquals(1, sparse.intersectionSize(dense));
+        assertEquals(1, dense.intersectionSize(sparse));
+        assertTrue(sparse.intersects(dense));
+        assertTrue(sparse.containsAll(SkillSet.of(3)));
+        assertFalse(dense.containsAll(sparse));
+    }
+
+    @Test
+    void matchesReferenceSetsAcrossForms() {
+        Random random = new Random(7);
+        List<TreeSet<Integer>> expected = new ArrayList<>();
+        List<SkillSet> sets = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // Mix small dense ids with a few large ones so both forms and mixed pairs occur
+            TreeSet<Integer> ids = new TreeSet<>();
+            int count = random.nextInt(8);
+            for (int j = 0; j < count; j++) {
+                ids.add(random.nextInt(4) == 0 ? random.nextInt(50_000) : random.nextInt(200));
+            }
+            expected.add(ids);
+            sets.add(SkillSet.of(ids.stream().mapToInt(Integer::intValue).toArray()));
+        }
+        for (int i = 0; i < sets.size(); i++) {
+            SkillSet a = sets.get(i);
+            TreeSet<Integer> ea = expected.get(i);
+            assertEquals(ea.size(), a.size());
+            assertArrayEquals(ea.stream().mapToInt(Integer::intValue).toArray(), a.ids());
+            for (int j = 0; j < sets.size(); j++) {
+                SkillSet b = sets.get(j);
+                TreeSet<Integer> eb = expected.get(j);
+                TreeSet<Integer> both = new TreeSet<>(ea);
+                both.retainAll(eb);
+                assertEquals(both.size(), a.intersectionSize(b));
+                assertEquals(!both.isEmpty(), a.intersects(b));
+                assertEquals(ea.containsAll(eb), a.containsAll(b));
+                assertEquals(ea.equals(eb), a.equals(b));
+                if (ea.equals(eb)) {
+                    assertEquals(a.hashCode(), b.hashCode());
+                }
+            }
+        }
+    }
+}